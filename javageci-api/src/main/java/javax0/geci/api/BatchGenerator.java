@@ -0,0 +1,38 @@
+package javax0.geci.api;
+
+import java.util.List;
+
+/**
+ * <p>A batch generator is a generator that gets all the sources it is
+ * interested in at once in each phase it is active. The framework
+ * invokes the method {@link #processAll(List)} once in every phase when
+ * {@link #activeIn(int)} returns {@code true} instead of invoking
+ * {@link #process(Source)} for each source one by one.</p>
+ *
+ * <p>Generators that have significant setup cost for each source can
+ * implement this interface to share the setup among the sources,
+ * prefetch class metadata or process the sources parallel. The default
+ * implementation of {@link #processAll(List)} simply invokes {@link
+ * #process(Source)} for each source.</p>
+ *
+ * <p>The framework passes the sources sorted by their absolute file
+ * names, so the order is the same in every run. The sources should be
+ * processed in the order of the list. When a
+ * source turns out to be binary the framework records it and continues
+ * the batch invoking {@link #processAll(List)} again with the sources
+ * that follow the binary one in the list.</p>
+ */
+public interface BatchGenerator extends Generator {
+
+    /**
+     * Process all the sources the generator is interested in.
+     *
+     * @param sources the sources in the current phase. The list is not
+     *                modifiable.
+     */
+    default void processAll(List<Source> sources) {
+        for (final var source : sources) {
+            process(source);
+        }
+    }
+}
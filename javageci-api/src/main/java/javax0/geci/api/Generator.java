@@ -1,5 +1,6 @@
 package javax0.geci.api;
 
+import java.util.Set;
 import java.util.function.Supplier;
 
 /**
@@ -96,6 +97,120 @@ public interface Generator {
         return 1;
     }
 
+    /**
+     * Return the strings that a source has to contain at least one of
+     * to be interesting for this generator. The framework scans the
+     * bytes of the source files once and it does not invoke {@link
+     * #process(Source)} for sources that contain none of the markers.
+     * Such sources are not even read into memory unless some other
+     * generator needs them.
+     * <p>
+     * The markers are simple strings, not regular expressions. A
+     * generator should only return a non-{@code null} set if it is
+     * sure that it does not need any source that does not contain any
+     * of the markers. For example a generator processing the {@code
+     * /*!jamal} comments may return a set containing this string.
+     * Generators configured through annotations should not, because
+     * the annotation may be any annotation that is annotated as {@code
+     * Geci} and the name of the annotation is not known.
+     * <p>
+     * The default implementation returns {@code null} meaning that the
+     * generator is interested in all sources.
+     *
+     * @return the set of the markers or {@code null} if the generator
+     * needs all the sources
+     */
+    default Set<String> markers() {
+        return null;
+    }
+
+    /**
+     * Return the keys of the data this generator produces. The keys are
+     * arbitrary strings agreed between the cooperating generators, for
+     * example {@code "snippets"} for a generator that collects snippets
+     * into the context or {@code "segment:mnemonic"} for a generator
+     * writing a segment that another generator reads.
+     * <p>
+     * When a generator returns a non-empty set from this method or from
+     * {@link #consumes()} then the framework does not use {@link
+     * #activeIn(int)} and {@link #phases()} to decide when the generator
+     * runs. Instead it runs the generator exactly once, in the first
+     * phase after all the generators producing anything it consumes
+     * were run. Generators that do not declare dependencies are run in
+     * the phases they ask for, in the same numbering.
+     * <p>
+     * The default implementation returns an empty set.
+     *
+     * @return the keys of the produced data
+     */
+    default Set<String> produces() {
+        return Set.of();
+    }
+
+    /**
+     * Return the keys of the data this generator needs from other
+     * generators. See {@link #produces()}.
+     * <p>
+     * The default implementation returns an empty set.
+     *
+     * @return the keys of the consumed data
+     */
+    default Set<String> consumes() {
+        return Set.of();
+    }
+
+    /**
+     * Return the file name extensions of the sources this generator is
+     * interested in. The extensions are without the leading dot, for
+     * example {@code java} or {@code md}. The framework does not invoke
+     * {@link #process(Source)} for sources that have a different
+     * extension.
+     * <p>
+     * The default implementation returns {@code null} meaning that the
+     * generator is interested in sources with any extension.
+     *
+     * @return the set of the extensions or {@code null}
+     */
+    default Set<String> extensions() {
+        return null;
+    }
+
+    /**
+     * Return the mnemonics that identify the sources this generator is
+     * interested in. A source is interesting for the generator if it
+     * contains any of the mnemonics, for example in a {@code
+     * Geci("mnemonic")} annotation or in the {@code id="mnemonic"} of a
+     * segment header. The mnemonics are handled the same way as the
+     * {@link #markers()}: the source has to contain any of the markers
+     * or any of the mnemonics.
+     * <p>
+     * The same caution applies as in case of the markers. Do not return
+     * the mnemonic when the generator can also be configured in a way
+     * that does not need the mnemonic to appear in the source.
+     * <p>
+     * The default implementation returns {@code null} meaning that the
+     * generator does not restrict the sources by mnemonics.
+     *
+     * @return the set of the mnemonics or {@code null}
+     */
+    default Set<String> mnemonics() {
+        return null;
+    }
+
+    /**
+     * Return the source sets this generator is interested in. The
+     * framework does not invoke {@link #process(Source)} for sources
+     * that were collected from other source sets.
+     * <p>
+     * The default implementation returns {@code null} meaning that the
+     * generator is interested in all the source sets.
+     *
+     * @return the set of the source sets or {@code null}
+     */
+    default Set<Source.Set> sourceSets() {
+        return null;
+    }
+
     /**
      * Generators wanting to use the context should implement this
      * method. The default implementation simply ignores the context.
@@ -158,6 +158,80 @@ public interface Segment extends AutoCloseable {
      */
     Segment param(String... keyValuePairs);
 
+    /**
+     * Define parameters that can be used in the write methods until the
+     * returned scope is closed. When the scope is closed the parameters
+     * get back the values they had before, or they are removed if they
+     * were not defined before. The same happens to the parameters that
+     * are set calling {@link #param(String...)} while the scope is the
+     * innermost open scope.
+     *
+     * <p>The default implementation defines the parameters calling
+     * {@link #param(String...)} and removes them when the scope is
+     * closed. It does not restore the parameters set calling {@link
+     * #param(String...)} inside the scope.
+     *
+     * @param keyValuePairs the keys and values that can be used in the first parameter of the write method between {{ and }}
+     * @return the scope that has to be closed when the parameters are not needed anymore
+     */
+    default ParamScope paramScope(String... keyValuePairs) {
+        param(keyValuePairs);
+        return () -> {
+            for (int i = 0; i < keyValuePairs.length; i += 2) {
+                param(keyValuePairs[i], null);
+            }
+        };
+    }
+
+    /**
+     * The scope of parameters defined calling {@link
+     * #paramScope(String...)}. It can be used in a try-with-resources
+     * block.
+     */
+    interface ParamScope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Create a dangling segment that has a copy of the parameters of
+     * this segment. The fork can be written independently of this
+     * segment, even by another thread, and it can later be appended to
+     * this segment calling {@link #append(Segment)}. The starting tab
+     * stop of the fork is zero.
+     *
+     * <p>Forking is optional. The generators that render parallel have
+     * to fall back to writing this segment sequentially when it cannot
+     * be forked. The default implementation returns {@code null}.
+     *
+     * @return the new segment or {@code null} if this segment cannot be
+     * forked
+     */
+    default Segment fork() {
+        return null;
+    }
+
+    /**
+     * Append the lines of a fork created calling {@link #fork()} to this
+     * segment. The lines are appended as they are, indented to the
+     * current tab stop. The parameters are not resolved in them again,
+     * thus a parameter value containing <code>{{</code> is kept as it
+     * was written into the fork. The parameters of the fork are also
+     * copied into this segment, so that appending the forks in order
+     * leaves the parameters the same way as writing the lines directly
+     * into this segment does.
+     *
+     * <p>The default implementation does not create forks, therefore
+     * there is nothing that could be appended to it. It throws {@link
+     * IllegalArgumentException}.
+     *
+     * @param fork the fork created from this segment
+     * @return {@code this}
+     */
+    default Segment append(Segment fork) {
+        throw new IllegalArgumentException(fork + " is not a fork of " + this);
+    }
+
     /**
      * @return the set of the keys that are defined in this segment for templating.
      */
@@ -7,6 +7,7 @@ import javax0.geci.tools.AbstractFilteredFieldsGenerator;
 import javax0.geci.tools.CompoundParams;
 import javax0.geci.tools.GeciReflectionTools;
 
+import java.lang.invoke.VarHandle;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
@@ -25,6 +26,7 @@ public class AbstractAccessor extends AbstractFilteredFieldsGenerator {
         protected String getter = null;
         protected String setter = null;
         protected String only = "";
+        protected String atomic = "false";
         protected boolean processAllClasses = false;
         protected Function<String,String> getterNameGenerator = AbstractAccessor::getterName;
         protected Function<String,String> setterNameGenerator = AbstractAccessor::setterName;
@@ -87,6 +89,9 @@ public class AbstractAccessor extends AbstractFilteredFieldsGenerator {
                         CompoundParams params,
                         Field field,
                         Segment segment) {
+        if (isGeneratedHandle(field)) {
+            return;
+        }
         final var isFinal = Modifier.isFinal(field.getModifiers());
         final var name = field.getName();
         final var fieldType = GeciReflectionTools.typeAsString(field);
@@ -100,6 +105,100 @@ public class AbstractAccessor extends AbstractFilteredFieldsGenerator {
         if (!"setter".equals(only)) {
             writeGetter(field, name, getter, fieldType, access, segment);
         }
+        if (!isFinal && params.is("atomic", config.atomic)) {
+            writeAtomicAccessors(field, name, fieldType, access, segment);
+        }
+    }
+
+    /**
+     * Write a static {@code VarHandle} for the field and the accessors
+     * that read and write the field with memory ordering and
+     * atomically using the handle. The handle is used directly, there
+     * is no {@code AtomicXxx} wrapper object.
+     *
+     * <p> The generated methods for a field {@code xyz} are {@code
+     * getXyzAcquire()}, {@code setXyzRelease()}, {@code
+     * compareAndSetXyz()}, {@code getAndSetXyz()} and for the numeric
+     * primitive types also {@code getAndAddXyz()}. The methods that
+     * cast the value read through the handle to a generic field type
+     * are annotated to suppress the unchecked cast warning.
+     *
+     * @param field   the field the accessors are generated for
+     * @param name    the name of the field
+     * @param type    the type of the field as it is used in the
+     *                declarations
+     * @param access  the access modifier of the generated methods
+     * @param segment where the code is written
+     */
+    protected void writeAtomicAccessors(Field field, String name, String type, String access, Segment segment) {
+        final var handle = handleName(name);
+        final var isStatic = Modifier.isStatic(field.getModifiers());
+        final var self = isStatic ? "" : "this";
+        final var receiver = isStatic ? "" : "this, ";
+        final var modifier = isStatic ? access + (access.isEmpty() ? "" : " ") + "static" : access;
+        final var ucName = ucase(name);
+        final var rawType = field.getType();
+        segment.write("private static final java.lang.invoke.VarHandle %s;", handle)
+                ._r("static {")
+                ._r("try {")
+                .write("%s = java.lang.invoke.MethodHandles.lookup().%s(%s.class, \"%s\", %s.class);",
+                        handle, isStatic ? "findStaticVarHandle" : "findVarHandle",
+                        field.getDeclaringClass().getSimpleName(), name, rawType.getCanonicalName())
+                ._l(null)
+                ._r("} catch (ReflectiveOperationException e) {")
+                .write("throw new ExceptionInInitializerError(e);")
+                ._l("}")
+                ._l("}")
+                .newline();
+        final var cast = "(" + type + ") ";
+        final var unchecked = field.getGenericType() != rawType;
+        if (unchecked) {
+            segment.write("@SuppressWarnings(\"unchecked\")");
+        }
+        segment._r("%s %s get%sAcquire(){", modifier, type, ucName)
+                .write("return %s%s.getAcquire(%s);", cast, handle, self)
+                ._l("}")
+                .newline();
+        segment._r("%s void set%sRelease(%s %s){", modifier, ucName, type, name)
+                .write("%s.setRelease(%s%s);", handle, receiver, name)
+                ._l("}")
+                .newline();
+        segment._r("%s boolean compareAndSet%s(%s expected, %s %s){", modifier, ucName, type, type, name)
+                .write("return %s.compareAndSet(%sexpected, %s);", handle, receiver, name)
+                ._l("}")
+                .newline();
+        if (unchecked) {
+            segment.write("@SuppressWarnings(\"unchecked\")");
+        }
+        segment._r("%s %s getAndSet%s(%s %s){", modifier, type, ucName, type, name)
+                .write("return %s%s.getAndSet(%s%s);", cast, handle, receiver, name)
+                ._l("}")
+                .newline();
+        if (rawType.isPrimitive() && rawType != boolean.class) {
+            segment._r("%s %s getAndAdd%s(%s delta){", modifier, type, ucName, type)
+                    .write("return %s%s.getAndAdd(%sdelta);", cast, handle, receiver)
+                    ._l("}")
+                    .newline();
+        }
+    }
+
+    /**
+     * @param field the field to check
+     * @return {@code true} if the field is a {@code VarHandle} that was
+     * generated for an {@code atomic} field. These do not need accessors.
+     */
+    private static boolean isGeneratedHandle(Field field) {
+        return field.getType() == VarHandle.class && field.getName().startsWith("VH_");
+    }
+
+    /**
+     * @param name the name of the field
+     * @return the name of the static field that holds the {@code
+     * VarHandle} of the field, like {@code VH_MY_FIELD} for {@code
+     * myField}
+     */
+    private static String handleName(String name) {
+        return "VH_" + name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
     }
 
     //<editor-fold id="configBuilder" filter="true" configAccess="protected">
@@ -110,6 +209,7 @@ public class AbstractAccessor extends AbstractFilteredFieldsGenerator {
 
     private static final java.util.Set<String> implementedKeys = new java.util.HashSet<>(java.util.Arrays.asList(
         "access",
+        "atomic",
         "filter",
         "getter",
         "mnemonic",
@@ -128,6 +228,11 @@ public class AbstractAccessor extends AbstractFilteredFieldsGenerator {
             return this;
         }
 
+        public Builder atomic(String atomic) {
+            config.atomic = atomic;
+            return this;
+        }
+
         public Builder filter(String filter) {
             config.filter = filter;
             return this;
@@ -180,6 +285,7 @@ public class AbstractAccessor extends AbstractFilteredFieldsGenerator {
     private Config localConfig(CompoundParams params){
         final var local = new Config();
         local.access = params.get("access", config.access);
+        local.atomic = params.get("atomic", config.atomic);
         local.filter = params.get("filter", config.filter);
         local.getter = params.get("getter", config.getter);
         local.getterNameGenerator = config.getterNameGenerator;
@@ -9,11 +9,14 @@ import javax0.geci.tools.CompoundParams;
 import javax0.geci.tools.GeciReflectionTools;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 
 import static javax0.geci.api.CompoundParams.toBoolean;
 
@@ -200,8 +203,57 @@ public class Builder extends AbstractFilteredFieldsGenerator {
          * name.
          */
         private String argumentVariable = "x";
+
+        /**
+         * -
+         *
+         * * If `{{configVariableName}}` is "true" then the generated
+         * builder is a `static` nested class that has its own copy of
+         * the fields instead of modifying a new instance of the [target
+         * class](TERMINOLOGY.md). The default value is
+         * `"{{configDefaultValue}}"`. Such a builder can be reused in
+         * tight loops without creating garbage. The method named after
+         * `buildMethod` with the postfix `Into`, `buildInto(target)` by
+         * default, copies the values that were set into an existing
+         * object. `build()` does the same with a new object created the
+         * way `factory` defines. The fields that were not set keep
+         * their value in the target object. The method `reset()` forgets
+         * all the set values and returns the builder. The aggregator
+         * methods collect the values in lists owned by the builder. These
+         * lists are cleared but are not released on `reset()`, so the
+         * next build does not need to grow them again. When the values
+         * are added to the target, the field is presized if its type
+         * has an `ensureCapacity(int)` method, like `ArrayList`. This
+         * value is used only on the class level.
+         */
+        private String reusable = "false";
+    }
+
+    /**
+     * The values added by an aggregator method in a reusable builder,
+     * which are added to the target object when it is built.
+     */
+    private static class Staging {
+        private final String field;
+        private final String list;
+        private final String remoteAggregatorMethod;
+        private final boolean presize;
+        private final boolean checkNull;
+
+        private Staging(String field, String list, String remoteAggregatorMethod, boolean presize, boolean checkNull) {
+            this.field = field;
+            this.list = list;
+            this.remoteAggregatorMethod = remoteAggregatorMethod;
+            this.presize = presize;
+            this.checkNull = checkNull;
+        }
     }
 
+    private boolean reusable;
+    private final List<Field> reusableFields = new ArrayList<>();
+    private final List<Staging> stagings = new ArrayList<>();
+    private final List<String> stagingDeclarations = new ArrayList<>();
+
     @Override
     public String mnemonic() {
         return "builder";
@@ -218,11 +270,23 @@ public class Builder extends AbstractFilteredFieldsGenerator {
             factory = "new " + klass.getSimpleName() + "()";
         }
         writeGenerated(segment, config.generatedAnnotation);
-        segment.write_r("public static %s.%s %s() {", klass.getSimpleName(), local.builderName, local.builderFactoryMethod)
-                .write("return %s.new %s();", factory, local.builderName)
-                .write_l("}")
-                .newline()
-                .write_r("public class %s {", local.builderName);
+        reusable = toBoolean(local.reusable);
+        if (reusable) {
+            reusableFields.clear();
+            stagings.clear();
+            stagingDeclarations.clear();
+            segment.write_r("public static %s.%s %s() {", klass.getSimpleName(), local.builderName, local.builderFactoryMethod)
+                    .write("return new %s();", local.builderName)
+                    .write_l("}")
+                    .newline()
+                    .write_r("public static class %s {", local.builderName);
+        } else {
+            segment.write_r("public static %s.%s %s() {", klass.getSimpleName(), local.builderName, local.builderFactoryMethod)
+                    .write("return %s.new %s();", factory, local.builderName)
+                    .write_l("}")
+                    .newline()
+                    .write_r("public class %s {", local.builderName);
+        }
     }
 
     @Override
@@ -236,7 +300,10 @@ public class Builder extends AbstractFilteredFieldsGenerator {
                 "Builder", local.builderName,
                 "x", local.argumentVariable);
         if (!Modifier.isFinal(field.getModifiers())) {
-            generateSetter(klass, segment, name, local.setterPrefix);
+            generateSetter(klass, segment, name, local.setterPrefix, reusable);
+            if (reusable) {
+                reusableFields.add(field);
+            }
         }
         if (local.aggregatorMethod != null && local.aggregatorMethod.length() > 0) {
             generateAggregators(klass, segment, field, local);
@@ -302,6 +369,23 @@ public class Builder extends AbstractFilteredFieldsGenerator {
                     writeGenerated(segment, local.generatedAnnotation);
                     segment.write_r("public {{Builder}} {{aggregatorMethod}}(final {{argumentType}} {{x}}) {");
 
+                    if (reusable) {
+                        final var list = local.aggregatorMethod + CaseTools.ucase(name) + "Values"
+                                + (argumentTypesDone.size() > 1 ? argumentTypesDone.size() : "");
+                        final var boxedType = method.getParameterTypes()[0].isPrimitive() ?
+                                MethodType.methodType(method.getParameterTypes()[0]).wrap().returnType().getSimpleName()
+                                : argumentTypeName;
+                        stagingDeclarations.add(String.format("private final java.util.ArrayList<%s> %s = new java.util.ArrayList<>();",
+                                boxedType, list));
+                        stagings.add(new Staging(name, list, local.aggregatorMethod,
+                                hasMethod(field.getType(), "ensureCapacity", int.class) && hasMethod(field.getType(), "size"),
+                                toBoolean(local.checkNullInAggregator)));
+                        segment.write("%s.add({{x}});", list)
+                                .write("return this;")
+                                .write_l("}")
+                                .newline();
+                        continue;
+                    }
                     if (toBoolean(local.checkNullInAggregator)) {
                         segment.write_r("if( {{class}}.this.{{field}} == null ) {")
                                 .write("throw new IllegalArgumentException(\"Collection field {{field}} is null\");")
@@ -362,11 +446,15 @@ public class Builder extends AbstractFilteredFieldsGenerator {
      * @param klass       in which the builder is created
      * @param segment     the segment where the builder code is created
      * @param name        the name of the field
+     * @param prefix      the prefix of the setter name
+     * @param reusable    {@code true} if the setter stores the value in
+     *                    the builder and not in the built object
      */
     private void generateSetter(Class<?> klass,
                                 Segment segment,
                                 String name,
-                                String prefix) {
+                                String prefix,
+                                boolean reusable) {
         writeGenerated(segment, config.generatedAnnotation);
         final String setterName;
         if (prefix != null && prefix.length() > 0) {
@@ -377,9 +465,14 @@ public class Builder extends AbstractFilteredFieldsGenerator {
         segment.param(
                 "setter", setterName,
                 "field", name);
-        segment.write_r("public {{Builder}} {{setter}}(final {{type}} {{x}}) {")
-                .write("{{class}}.this.{{field}} = {{x}};")
-                .write("return this;")
+        segment.write_r("public {{Builder}} {{setter}}(final {{type}} {{x}}) {");
+        if (reusable) {
+            segment.write("this.{{field}} = {{x}};")
+                    .write("this.{{field}}Set = true;");
+        } else {
+            segment.write("{{class}}.this.{{field}} = {{x}};");
+        }
+        segment.write("return this;")
                 .write_l("}")
                 .newline();
     }
@@ -387,6 +480,10 @@ public class Builder extends AbstractFilteredFieldsGenerator {
     @Override
     public void postprocess(Source source, Class<?> klass, CompoundParams global, Segment segment) {
         final var local = localConfig(global);
+        if (reusable) {
+            generateReusableTail(klass, segment, local);
+            return;
+        }
         writeGenerated(segment, config.generatedAnnotation);
         segment.write_r("public %s %s() {", klass.getSimpleName(), local.buildMethod)
                 .write("return %s.this;", klass.getSimpleName())
@@ -394,6 +491,86 @@ public class Builder extends AbstractFilteredFieldsGenerator {
         segment.write_l("}"); // end of builder class
     }
 
+    /**
+     * <p>Generate the end of the reusable builder: the methods that copy
+     * the values into the target object and that reset the builder, and
+     * the fields of the builder.</p>
+     *
+     * @param klass   the target class
+     * @param segment the segment where the builder code is created
+     * @param local   the configuration
+     */
+    private void generateReusableTail(Class<?> klass, Segment segment, Config local) {
+        final var className = klass.getSimpleName();
+        final String factory;
+        if (local.factory != null && !local.factory.isEmpty()) {
+            factory = local.factory;
+        } else {
+            factory = "new " + className + "()";
+        }
+        writeGenerated(segment, config.generatedAnnotation);
+        segment.write_r("public %s %sInto(final %s target) {", className, local.buildMethod, className);
+        for (final var field : reusableFields) {
+            segment.write_r("if (%sSet) {", field.getName())
+                    .write("target.%s = %s;", field.getName(), field.getName())
+                    .write_l("}");
+        }
+        for (final var staging : stagings) {
+            segment.write_r("if (!%s.isEmpty()) {", staging.list);
+            if (staging.checkNull) {
+                segment.write_r("if( target.%s == null ) {", staging.field)
+                        .write("throw new IllegalArgumentException(\"Collection field %s is null\");", staging.field)
+                        .write_l("}");
+            }
+            if (staging.presize) {
+                segment.write("target.%s.ensureCapacity(target.%s.size() + %s.size());", staging.field, staging.field, staging.list);
+            }
+            segment.write_r("for (int i = 0; i < %s.size(); i++) {", staging.list)
+                    .write("target.%s.%s(%s.get(i));", staging.field, staging.remoteAggregatorMethod, staging.list)
+                    .write_l("}")
+                    .write_l("}");
+        }
+        segment.write("return target;")
+                .write_l("}")
+                .newline();
+        writeGenerated(segment, config.generatedAnnotation);
+        segment.write_r("public %s %s() {", className, local.buildMethod)
+                .write("return %sInto(%s);", local.buildMethod, factory)
+                .write_l("}")
+                .newline();
+        writeGenerated(segment, config.generatedAnnotation);
+        segment.write_r("public %s reset() {", local.builderName);
+        for (final var field : reusableFields) {
+            if (!field.getType().isPrimitive()) {
+                segment.write("%s = null;", field.getName());
+            }
+            segment.write("%sSet = false;", field.getName());
+        }
+        for (final var staging : stagings) {
+            segment.write("%s.clear();", staging.list);
+        }
+        segment.write("return this;")
+                .write_l("}")
+                .newline();
+        for (final var field : reusableFields) {
+            segment.write("private %s %s;", GeciReflectionTools.normalizeTypeName(field.getType().getName(), klass), field.getName())
+                    .write("private boolean %sSet;", field.getName());
+        }
+        for (final var declaration : stagingDeclarations) {
+            segment.write(declaration);
+        }
+        segment.write_l("}"); // end of builder class
+    }
+
+    private static boolean hasMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            type.getMethod(name, parameterTypes);
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
     @Override
     protected String defaultFilterExpression() {
         return config.filter;
@@ -414,6 +591,7 @@ public class Builder extends AbstractFilteredFieldsGenerator {
         "checkNullInAggregator",
         "factory",
         "filter",
+        "reusable",
         "setterPrefix",
         "id"
     ));
@@ -468,6 +646,11 @@ public class Builder extends AbstractFilteredFieldsGenerator {
             return this;
         }
 
+        public ConfBuilder reusable(String reusable) {
+            config.reusable = reusable;
+            return this;
+        }
+
         public ConfBuilder setterPrefix(String setterPrefix) {
             config.setterPrefix = setterPrefix;
             return this;
@@ -488,6 +671,7 @@ public class Builder extends AbstractFilteredFieldsGenerator {
         local.factory = params.get("factory", config.factory);
         local.filter = params.get("filter", config.filter);
         local.generatedAnnotation = config.generatedAnnotation;
+        local.reusable = params.get("reusable", config.reusable);
         local.setterPrefix = params.get("setterPrefix", config.setterPrefix);
         return local;
     }
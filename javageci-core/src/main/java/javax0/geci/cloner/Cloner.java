@@ -11,7 +11,23 @@ import javax0.geci.tools.GeciReflectionTools;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 import static javax0.geci.api.CompoundParams.toBoolean;
 import static javax0.geci.tools.CaseTools.ucase;
@@ -151,6 +167,45 @@ public class Cloner extends AbstractFilteredFieldsGenerator {
         declared in the actual class.
 
         end snippet */
+
+        // snippet Cloner_Config_011
+        private String deep = "false";
+        /*
+
+        Set this configuration value to `true` to make the copying
+        method create a deep copy of the fields instead of copying the
+        references. The copy is created in the most efficient way the
+        type of the field allows:
+
+        * Arrays are copied calling `clone()`. If the elements of the
+          array are arrays or objects that have a clone method (see
+          `cloneMethod`) then the elements are also copied one level
+          deep.
+
+        * Fields declared as `ArrayList`, `LinkedList`, `ArrayDeque`,
+          `HashSet`, `LinkedHashSet`, `TreeSet`, `HashMap`,
+          `LinkedHashMap` or `TreeMap` are copied with the copy
+          constructor of the same class. Fields declared as `List`,
+          `Set` or `Map` are copied into an `ArrayList`,
+          `LinkedHashSet` or `LinkedHashMap`, so the iteration order is
+          kept. Fields declared as `SortedSet`, `NavigableSet`,
+          `SortedMap` or `NavigableMap` are copied into a `TreeSet` or
+          `TreeMap` keeping the comparator. The copy constructors size
+          the new collection for the copied elements. The elements
+          themselves are not copied.
+
+        * Fields whose type has a public clone method without
+          arguments are copied calling that method. This is typically
+          the case for the classes that also have a generated `copy()`.
+          The type of the class itself is handled this way even before
+          the method is generated. Note that the object graph must not
+          have cycles through these fields.
+
+        * All other fields are copied by reference as with the default
+          `false` value.
+
+        end snippet */
+
         private void setDeclaredOnly(boolean b) {
             Cloner.this.declaredOnly = b;
         }
@@ -191,12 +246,101 @@ public class Cloner extends AbstractFilteredFieldsGenerator {
         }
         segment.newline();
 
+        final var deep = toBoolean(local.deep);
         for (final var field : fields) {
-            segment.write("it.%s = %s;", field.getName(), field.getName());
+            if (deep) {
+                writeDeepCopy(segment, klass, local, field);
+            } else {
+                segment.write("it.%s = %s;", field.getName(), field.getName());
+            }
         }
         segment.write_l("}").newline();
     }
 
+    private static final Map<Class<?>, String> COPY_CONSTRUCTORS = Map.ofEntries(
+        Map.entry(ArrayList.class, "java.util.ArrayList"),
+        Map.entry(LinkedList.class, "java.util.LinkedList"),
+        Map.entry(ArrayDeque.class, "java.util.ArrayDeque"),
+        Map.entry(HashSet.class, "java.util.HashSet"),
+        Map.entry(LinkedHashSet.class, "java.util.LinkedHashSet"),
+        Map.entry(TreeSet.class, "java.util.TreeSet"),
+        Map.entry(HashMap.class, "java.util.HashMap"),
+        Map.entry(LinkedHashMap.class, "java.util.LinkedHashMap"),
+        Map.entry(TreeMap.class, "java.util.TreeMap"),
+        Map.entry(List.class, "java.util.ArrayList"),
+        Map.entry(Set.class, "java.util.LinkedHashSet"),
+        Map.entry(SortedSet.class, "java.util.TreeSet"),
+        Map.entry(NavigableSet.class, "java.util.TreeSet"),
+        Map.entry(Map.class, "java.util.LinkedHashMap"),
+        Map.entry(SortedMap.class, "java.util.TreeMap"),
+        Map.entry(NavigableMap.class, "java.util.TreeMap")
+    );
+
+    /**
+     * Write the code that copies the field deep. The different cases
+     * are documented at the configuration parameter {@code deep}.
+     *
+     * @param segment where the code is written
+     * @param klass   the class the copy method is generated for
+     * @param local   the configuration
+     * @param field   the field to copy
+     */
+    private void writeDeepCopy(Segment segment, Class<?> klass, Config local, Field field) {
+        final var name = field.getName();
+        final var type = field.getType();
+        if (type.isArray()) {
+            segment.write("it.%s = %s == null ? null : %s.clone();", name, name, name);
+            final var component = type.getComponentType();
+            final var elementCopy = component.isArray() ? "clone" : cloneMethodOf(component, klass, local);
+            if (elementCopy != null) {
+                segment.write_r("if (%s != null) {", name)
+                    .write_r("for (int i = 0; i < %s.length; i++) {", name)
+                    .write("if (%s[i] != null) it.%s[i] = %s[i].%s();", name, name, name, elementCopy)
+                    .write_l("}")
+                    .write_l("}");
+            }
+            return;
+        }
+        final var collection = COPY_CONSTRUCTORS.get(type);
+        if (collection != null) {
+            segment.write("it.%s = %s == null ? null : new %s<>(%s);", name, name, collection, name);
+            return;
+        }
+        final var cloneMethod = cloneMethodOf(type, klass, local);
+        if (cloneMethod != null) {
+            segment.write("it.%s = %s == null ? null : %s.%s();", name, name, name, cloneMethod);
+        } else {
+            segment.write("it.%s = %s;", name, name);
+        }
+    }
+
+    /**
+     * Get the name of the method that clones an object of the given
+     * type.
+     *
+     * @param type  the type of the object to be cloned
+     * @param klass the class the code is generated for. This class
+     *              will have the clone method after the code generation
+     *              even if it does not have it yet.
+     * @param local the configuration
+     * @return the name of the public argument-less method that returns
+     * a value of the type or {@code null} if there is no such method
+     */
+    private static String cloneMethodOf(Class<?> type, Class<?> klass, Config local) {
+        if (type == klass) {
+            return local.cloneMethod;
+        }
+        if (type.isPrimitive()) {
+            return null;
+        }
+        try {
+            final var method = type.getMethod(local.cloneMethod);
+            return type.isAssignableFrom(method.getReturnType()) ? local.cloneMethod : null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
     @Override
     public void process(Source source, Class<?> klass, CompoundParams params, Field field, Segment segment) {
         final var local = localConfig(params);
@@ -236,6 +380,7 @@ public class Cloner extends AbstractFilteredFieldsGenerator {
         "copyCallsSuper",
         "copyMethod",
         "copyMethodProtection",
+        "deep",
         "filter",
         "superCopyMethod",
         "id"
@@ -281,6 +426,11 @@ public class Cloner extends AbstractFilteredFieldsGenerator {
             return this;
         }
 
+        public Builder deep(String deep) {
+            config.deep = deep;
+            return this;
+        }
+
         public Builder filter(String filter) {
             config.filter = filter;
             return this;
@@ -314,6 +464,7 @@ public class Cloner extends AbstractFilteredFieldsGenerator {
         local.copyMethod = params.get("copyMethod", config.copyMethod);
         local.copyMethodProtection = params.get("copyMethodProtection", config.copyMethodProtection);
         local.setDeclaredOnly(config.declaredOnly);
+        local.deep = params.get("deep", config.deep);
         local.filter = params.get("filter", config.filter);
         local.generatedAnnotation = config.generatedAnnotation;
         local.superCopyMethod = params.get("superCopyMethod", config.superCopyMethod);
@@ -8,15 +8,23 @@ import javax0.geci.tools.AbstractFilteredFieldsGenerator;
 import javax0.geci.tools.CompoundParams;
 import javax0.geci.tools.GeciAnnotationTools;
 import javax0.geci.tools.GeciReflectionTools;
+import javax0.geci.tools.HashCodeTools;
 import javax0.geci.tools.reflection.Selector;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Sample generator that generates {@code equals()} and {@code
@@ -52,12 +60,13 @@ public class Equals extends AbstractFilteredFieldsGenerator {
         private String notNull = "true";
         private String hashFilter = "true";
         private String useSuper = "no";
+        private String costOrder = "no";
     }
 
     private boolean generateEquals;
     private Segment equalsSegment;
-    private Field lastField;
-    private CompoundParams lastParams;
+    private final List<Field> equalsFields = new ArrayList<>();
+    private final List<CompoundParams> equalsParams = new ArrayList<>();
 
     @Override
     public String mnemonic() {
@@ -68,18 +77,26 @@ public class Equals extends AbstractFilteredFieldsGenerator {
     public void preprocess(Source source, Class<?> klass, CompoundParams global) {
         equalsSegment = source.temporary();
         generateEqualsHeader(equalsSegment, klass, global);
-        lastField = null;
+        equalsFields.clear();
+        equalsParams.clear();
     }
 
     @Override
     public void process(Source source, Class<?> klass, CompoundParams params, Field field) {
-        generateEqualsForField(equalsSegment, params, field);
+        equalsFields.add(field);
+        equalsParams.add(params);
     }
 
     @Override
     public void postprocess(Source source, Class<?> klass, CompoundParams global) throws IOException {
-        if (lastField != null) {
-            generateEqualsForField(equalsSegment, lastParams, lastField, this::retLast);
+        final var order = IntStream.range(0, equalsFields.size()).boxed().collect(Collectors.toList());
+        if (global.is("costOrder", config.costOrder)) {
+            order.sort(Comparator.comparingInt(i -> comparisonCost(equalsFields.get(i).getType())));
+        }
+        for (int i = 0; i < order.size(); i++) {
+            final var index = order.get(i);
+            generateEqualsForField(equalsSegment, equalsParams.get(index), equalsFields.get(index),
+                i == order.size() - 1 ? this::retLast : this::ret);
         }
         generateEqualsTail(equalsSegment);
         try( final var segment = source.open(global.id())) {
@@ -117,12 +134,34 @@ public class Equals extends AbstractFilteredFieldsGenerator {
         segment.write_l("}").newline();
     }
 
-    private void generateEqualsForField(Segment segment, CompoundParams params, Field field) {
-        if (lastField != null) {
-            generateEqualsForField(segment, lastParams, lastField, this::ret);
+    private static final Set<Class<?>> CHEAP_OBJECTS = Set.of(String.class, Boolean.class, Character.class,
+        Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class);
+
+    /**
+     * Estimate the relative cost of the comparison of two values of the
+     * type. When the configuration {@code costOrder} is {@code yes} the
+     * fields are compared in the order of this cost so that the cheap
+     * comparisons can reject the unequal objects before the expensive
+     * ones are executed. Fields of the same cost keep the order they
+     * are provided in, which is the order of the names, therefore the
+     * generated code is deterministic.
+     *
+     * @param type the type of the field
+     * @return 0 for primitives and enums, 1 for the boxed primitive
+     * types and {@code String}, 3 for arrays, collections and maps, and
+     * 2 for any other type
+     */
+    private static int comparisonCost(Class<?> type) {
+        if (type.isPrimitive() || type.isEnum()) {
+            return 0;
         }
-        lastParams = params;
-        lastField = field;
+        if (CHEAP_OBJECTS.contains(type)) {
+            return 1;
+        }
+        if (type.isArray() || Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)) {
+            return 3;
+        }
+        return 2;
     }
 
     private void generateEqualsForField(Segment segment, CompoundParams params, Field field, Function<String, String> convert) {
@@ -313,10 +352,24 @@ public class Equals extends AbstractFilteredFieldsGenerator {
         return Arrays.stream(fields).map(Field::getType).anyMatch(c -> c.equals(double.class));
     }
 
+    /**
+     * Generate the hash code body that calculates the same value as
+     * {@code java.util.Objects.hash()} would, but without allocating
+     * the argument array and boxing the primitive fields.
+     *
+     * @param segment    where the code is written
+     * @param fields     the fields to include into the hash code
+     * @param usingSuper include the hash code of the super class as
+     *                   the last value
+     */
     private void generateHashCodeBodyUsingObjects(Segment segment, Field[] fields, boolean usingSuper) {
-        var andSuperHash = usingSuper ? ", super.hashCode()" : "";
-        segment.write("return java.util.Objects.hash(%s" + andSuperHash + ");",
-                Arrays.stream(fields).map(Field::getName).collect(Collectors.joining(", ")));
+        segment.write("int result = 1;");
+        if (usingSuper) {
+            HashCodeTools.writeHashStatements(segment, Arrays.asList(fields), "super.hashCode()");
+        } else {
+            HashCodeTools.writeHashStatements(segment, Arrays.asList(fields));
+        }
+        segment.write("return result;");
     }
 
     @Override
@@ -331,6 +384,7 @@ public class Equals extends AbstractFilteredFieldsGenerator {
     }
 
     private static final java.util.Set<String> implementedKeys = new java.util.HashSet<>(java.util.Arrays.asList(
+        "costOrder",
         "filter",
         "hashFilter",
         "notNull",
@@ -345,6 +399,11 @@ public class Equals extends AbstractFilteredFieldsGenerator {
         return implementedKeys;
     }
     public class Builder implements javax0.geci.api.GeneratorBuilder {
+        public Builder costOrder(String costOrder) {
+            config.costOrder = costOrder;
+            return this;
+        }
+
         public Builder filter(String filter) {
             config.filter = filter;
             return this;
@@ -386,6 +445,7 @@ public class Equals extends AbstractFilteredFieldsGenerator {
     }
     private Config localConfig(CompoundParams params){
         final var local = new Config();
+        local.costOrder = params.get("costOrder", config.costOrder);
         local.filter = params.get("filter", config.filter);
         local.generatedAnnotation = config.generatedAnnotation;
         local.hashFilter = params.get("hashFilter", config.hashFilter);
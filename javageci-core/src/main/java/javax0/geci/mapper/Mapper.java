@@ -7,13 +7,15 @@ import javax0.geci.core.annotations.AnnotationBuilder;
 import javax0.geci.tools.AbstractJavaGenerator;
 import javax0.geci.tools.CompoundParams;
 import javax0.geci.tools.GeciReflectionTools;
-import javax0.geci.tools.JVM8Tools;
+import javax0.geci.tools.TemplateLoader;
 import javax0.geci.tools.reflection.Selector;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -28,6 +30,9 @@ import java.util.function.Function;
 @AnnotationBuilder
 public class Mapper extends AbstractJavaGenerator {
 
+    private static final java.util.Set<Class<?>> BOXED_NUMBERS = java.util.Set.of(
+        Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class);
+
     /**
      * - Config
      */
@@ -74,6 +79,42 @@ public class Mapper extends AbstractJavaGenerator {
          * keyword `new`.
          */
         private String factory = null;
+        /**
+         * -
+         *
+         * * `cycles` can be set to `no` when the object graphs that are
+         * converted to and from maps never contain circular references.
+         * In this case the generated methods do not use an identity
+         * map to keep track of the already converted objects, the maps
+         * are created with the capacity needed for the selected fields
+         * and the nested objects are converted calling their `toMap()`
+         * and `fromMap()` methods. The `toMap0()` and `fromMap0()`
+         * methods are not generated. The default is `yes`.
+         */
+        private String cycles = "yes";
+        /**
+         * -
+         *
+         * * `writeTo` can be set to `yes` to also generate a
+         * `writeTo(Appendable)` method. This method writes the selected
+         * fields as a JSON object directly to the output without
+         * creating any intermediate map. The keys are the same as the
+         * keys used in the map. The fields, which have a type with a
+         * `writeTo(Appendable)` method are written calling that method,
+         * numeric and boolean values are written as they are, except
+         * the not finite floating point values, which are written as
+         * `null`. Maps are written as JSON objects, collections and
+         * arrays as JSON arrays, their elements are written the same
+         * way as the fields, except that they are not checked for a
+         * `writeTo(Appendable)` method. All other values are written
+         * as JSON strings. Primitive and boxed numbers are written
+         * without creating any intermediate `String` when the output is
+         * a `StringBuilder` and for integral values in all cases. The
+         * method does not follow circular references, therefore it can
+         * only be used for object graphs that do not have any. The
+         * default is `no`.
+         */
+        private String writeTo = "no";
     }
 
     @Override
@@ -91,33 +132,133 @@ public class Mapper extends AbstractJavaGenerator {
                 "Map", "java.util.Map",
                 "HashMap", "java.util.HashMap"
             );
-            generateToMap(segment, source, klass, global);
-            generateFromMap(segment, source, klass, global);
+            final var cycles = global.is("cycles", config.cycles);
+            generateToMap(segment, source, klass, global, cycles);
+            generateFromMap(segment, source, klass, global, cycles);
+            if (global.is("writeTo", config.writeTo)) {
+                generateWriteTo(segment, klass, global);
+            }
         }
     }
 
-    private void generateToMap(Segment segment, Source source, Class<?> klass, CompoundParams global) throws Exception {
-        final var fields = GeciReflectionTools.getAllFieldsSorted(klass);
-        segment.write_r(getResourceString("tomap.template"));
+    private void generateToMap(Segment segment, Source source, Class<?> klass, CompoundParams global, boolean cycles) throws Exception {
+        final var fields = selectedFields(klass, global);
+        if (cycles) {
+            segment.write_r(getResourceString("tomap.template"));
+        } else {
+            segment.param("capacity", "" + (int) Math.ceil(fields.size() / 0.75));
+            segment.write_r(getResourceString("tomap_nocycles.template"));
+        }
         for (final var field : fields) {
-            final var params = GeciReflectionTools.getParameters(field, mnemonic());
-            final var local = localConfig(new CompoundParams(params, global));
-            if (Selector.compile(local.filter).match(field)) {
-                final var name = field.getName();
-                if (hasToMap(field.getType())) {
-                    segment.write("map.put(\"%s\", %s == null ? null : %s.toMap0(cache));", field2MapKey(name), name, name);
+            final var name = field.getName();
+            if (cycles && hasToMap(field.getType())) {
+                segment.write("map.put(\"%s\", %s == null ? null : %s.toMap0(cache));", field2MapKey(name), name, name);
+            } else if (!cycles && hasMethod(field.getType(), "toMap")) {
+                segment.write("map.put(\"%s\", %s == null ? null : %s.toMap());", field2MapKey(name), name, name);
+            } else {
+                segment.write("map.put(\"%s\",%s);", field2MapKey(name), name);
+            }
+        }
+        segment.write("return map;")
+                ._l("}");
+    }
+
+    private void generateWriteTo(Segment segment, Class<?> klass, CompoundParams global) throws IOException {
+        final var fields = selectedFields(klass, global);
+        segment.write_r(getResourceString("writeto.template"));
+        var separator = "{";
+        var needsString = false;
+        var needsNumber = false;
+        var needsValue = false;
+        for (final var field : fields) {
+            final var name = field.getName();
+            final var type = field.getType();
+            segment.write("out.append(\"%s\\\"%s\\\":\");", separator, field2MapKey(name));
+            separator = ",";
+            if (type == boolean.class) {
+                segment.write("out.append(%s ? \"true\" : \"false\");", name);
+            } else if (type == Boolean.class) {
+                segment.write("out.append(%s == null ? \"null\" : %s ? \"true\" : \"false\");", name, name);
+            } else if (type.isPrimitive() && type != char.class) {
+                segment.write("writeJsonNumber(out, %s);", name);
+                needsNumber = true;
+            } else if (BOXED_NUMBERS.contains(type)) {
+                segment.write("if (%s == null) {\n" +
+                        "    out.append(\"null\");\n" +
+                        "} else {\n" +
+                        "    writeJsonNumber(out, %s);\n" +
+                        "}", name, name);
+                needsNumber = true;
+            } else if (type.isArray() && type.getComponentType().isPrimitive() && type.getComponentType() != char.class) {
+                final var index = name.equals("i") ? "j" : "i";
+                final String element;
+                if (type.getComponentType() == boolean.class) {
+                    element = String.format("out.append(%s[%s] ? \"true\" : \"false\");", name, index);
                 } else {
-                    segment.write("map.put(\"%s\",%s);", field2MapKey(name), name);
+                    element = String.format("writeJsonNumber(out, %s[%s]);", name, index);
+                    needsNumber = true;
                 }
+                segment.write("if (%s == null) {\n" +
+                        "    out.append(\"null\");\n" +
+                        "} else {\n" +
+                        "    out.append('[');\n" +
+                        "    for (int %s = 0; %s < %s.length; %s++) {\n" +
+                        "        if (%s > 0) {\n" +
+                        "            out.append(',');\n" +
+                        "        }\n" +
+                        "        %s\n" +
+                        "    }\n" +
+                        "    out.append(']');\n" +
+                        "}", name, index, index, name, index, index, element);
+            } else if (hasMethod(type, "writeTo", Appendable.class)) {
+                segment.write("if (%s == null) {\n" +
+                        "    out.append(\"null\");\n" +
+                        "} else {\n" +
+                        "    %s.writeTo(out);\n" +
+                        "}", name, name);
+            } else if (Number.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)
+                    || Iterable.class.isAssignableFrom(type) || type.isArray()) {
+                segment.write("writeJsonValue(out, %s);", name);
+                needsValue = true;
+            } else {
+                segment.write("writeJsonString(out, %s);", name);
+                needsString = true;
             }
         }
-        segment.write("return map;")
+        segment.write("out.append(\"%s\");", fields.isEmpty() ? "{}" : "}")
                 ._l("}");
+        if (needsValue) {
+            segment.write(getResourceString("writevalue.template"));
+        }
+        if (needsString || needsValue) {
+            segment.write(getResourceString("writestring.template"));
+        }
+        if (needsNumber || needsValue) {
+            segment.write(getResourceString("writenumber.template"));
+        }
+    }
+
+    /**
+     * @param klass  the class that has the fields
+     * @param global the parameters of the class
+     * @return the fields selected by the {@code filter} configured for
+     * the class or for the field itself
+     */
+    private List<Field> selectedFields(Class<?> klass, CompoundParams global) {
+        final var selected = new ArrayList<Field>();
+        for (final var field : GeciReflectionTools.getAllFieldsSorted(klass)) {
+            final var params = GeciReflectionTools.getParameters(field, mnemonic());
+            final var local = localConfig(new CompoundParams(params, global));
+            if (Selector.compile(local.filter).match(field)) {
+                selected.add(field);
+            }
+        }
+        return selected;
     }
 
     /**
-     * Get the resource from the resouce file and remove all \r
-     * characters in case it is Windows style.
+     * Get the resource from the resouce file. The line endings are
+     * normalized by the {@link TemplateLoader}.
      *
      * @param resource the name of the resource in the same JAR directory
      *                 where the class is.
@@ -125,8 +266,11 @@ public class Mapper extends AbstractJavaGenerator {
      * @throws IOException if the file was not found
      */
     private String getResourceString(String resource) throws IOException {
-        return new String(JVM8Tools.readAllBytes(getClass().getResourceAsStream(resource)), StandardCharsets.UTF_8)
-                .replaceAll("\r", "");
+        final var url = getClass().getResource(resource);
+        if (url == null) {
+            throw new IOException("Resource '" + resource + "' was not found");
+        }
+        return TemplateLoader.getResourceContent(url);
     }
 
     private String field2MapKey(String name) {
@@ -134,48 +278,45 @@ public class Mapper extends AbstractJavaGenerator {
     }
 
     private boolean hasToMap(Class<?> type) {
-        try {
-            type.getDeclaredMethod("toMap");
-            type.getDeclaredMethod("toMap0", Map.class);
-            return true;
-        } catch (NoSuchMethodException ignored) {
-            return false;
-        }
+        return hasMethod(type, "toMap") && hasMethod(type, "toMap0", Map.class);
     }
 
-    private boolean hasFromMap(Class<?> type) {
+    private boolean hasMethod(Class<?> type, String name, Class<?>... parameterTypes) {
         try {
-            type.getDeclaredMethod("fromMap", Map.class);
-            type.getDeclaredMethod("fromMap0", Map.class, Map.class);
+            type.getDeclaredMethod(name, parameterTypes);
             return true;
         } catch (NoSuchMethodException ignored) {
             return false;
         }
+    }
 
+    private boolean hasFromMap(Class<?> type) {
+        return hasMethod(type, "fromMap", Map.class) && hasMethod(type, "fromMap0", Map.class, Map.class);
     }
 
-    private void generateFromMap(Segment segment, Source source, Class<?> klass, CompoundParams global) throws IOException {
-        final var fields = GeciReflectionTools.getAllFieldsSorted(klass);
-        segment.write_r(getResourceString("frommap.template"));
+    private void generateFromMap(Segment segment, Source source, Class<?> klass, CompoundParams global, boolean cycles) throws IOException {
+        final var fields = selectedFields(klass, global);
+        segment.write_r(getResourceString(cycles ? "frommap.template" : "frommap_nocycles.template"));
         for (final var field : fields) {
             if (Modifier.isFinal(field.getModifiers())) {
                 continue;
             }
-            final var params = GeciReflectionTools.getParameters(field, mnemonic());
-            final var local = localConfig(new CompoundParams(params, global));
-            if (Selector.compile(local.filter).match(field)) {
-                final var name = field.getName();
-                if (hasFromMap(field.getType())) {
-                    segment.write("it.%s = %s.fromMap0(({{Map}}<String,Object>)map.get(\"%s\"),cache);",
-                            name,
-                            field.getType().getCanonicalName(),
-                            field2MapKey(name));
-                } else {
-                    segment.write("it.%s = (%s)map.get(\"%s\");",
-                            name,
-                            field.getType().getCanonicalName(),
-                            field2MapKey(name));
-                }
+            final var name = field.getName();
+            if (cycles && hasFromMap(field.getType())) {
+                segment.write("it.%s = %s.fromMap0(({{Map}}<String,Object>)map.get(\"%s\"),cache);",
+                        name,
+                        field.getType().getCanonicalName(),
+                        field2MapKey(name));
+            } else if (!cycles && hasMethod(field.getType(), "fromMap", Map.class)) {
+                segment.write("it.%s = %s.fromMap(({{Map}}<String,Object>)map.get(\"%s\"));",
+                        name,
+                        field.getType().getCanonicalName(),
+                        field2MapKey(name));
+            } else {
+                segment.write("it.%s = (%s)map.get(\"%s\");",
+                        name,
+                        field.getType().getCanonicalName(),
+                        field2MapKey(name));
             }
         }
         segment.write("return it;")._l("}");
@@ -195,8 +336,10 @@ public class Mapper extends AbstractJavaGenerator {
     }
 
     private static final java.util.Set<String> implementedKeys = new java.util.HashSet<>(java.util.Arrays.asList(
+        "cycles",
         "factory",
         "filter",
+        "writeTo",
         "id"
     ));
 
@@ -205,6 +348,11 @@ public class Mapper extends AbstractJavaGenerator {
         return implementedKeys;
     }
     public class Builder implements javax0.geci.api.GeneratorBuilder {
+        public Builder cycles(String cycles) {
+            config.cycles = cycles;
+            return this;
+        }
+
         public Builder factory(String factory) {
             config.factory = factory;
             return this;
@@ -225,6 +373,11 @@ public class Mapper extends AbstractJavaGenerator {
             return this;
         }
 
+        public Builder writeTo(String writeTo) {
+            config.writeTo = writeTo;
+            return this;
+        }
+
         public Builder mnemonic(String mnemonic) {
             configuredMnemonic = mnemonic;
             return this;
@@ -236,10 +389,12 @@ public class Mapper extends AbstractJavaGenerator {
     }
     private Config localConfig(CompoundParams params){
         final var local = new Config();
+        local.cycles = params.get("cycles", config.cycles);
         local.factory = params.get("factory", config.factory);
         local.field2MapKeyMapper = config.field2MapKeyMapper;
         local.filter = params.get("filter", config.filter);
         local.generatedAnnotation = config.generatedAnnotation;
+        local.writeTo = params.get("writeTo", config.writeTo);
         return local;
     }
     //</editor-fold>
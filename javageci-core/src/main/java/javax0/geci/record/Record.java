@@ -10,16 +10,19 @@ import javax0.geci.tools.AbstractFilteredFieldsGenerator;
 import javax0.geci.tools.CaseTools;
 import javax0.geci.tools.CompoundParams;
 import javax0.geci.tools.GeciReflectionTools;
+import javax0.geci.tools.HashCodeTools;
 import javax0.geci.tools.reflection.Selector;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import static javax0.geci.api.CompoundParams.toBoolean;
 import static javax0.geci.lexeger.LexpressionBuilder.anyTill;
 import static javax0.geci.lexeger.LexpressionBuilder.group;
 import static javax0.geci.lexeger.LexpressionBuilder.identifier;
@@ -56,6 +59,11 @@ import static javax0.geci.lexeger.LexpressionBuilder.zeroOrMore;
  * {@code final} modifier to the class as well as any non-static fields.
  * </p>
  *
+ * <p>When the configuration parameter {@code cacheHash} is {@code yes}
+ * then the generated {@code hashCode()} stores the calculated value in
+ * a {@code transient} field named {@code hashCodeCache}. Use it only
+ * when the fields of the record reference immutable objects.</p>
+ *
  * <p> Note that altering the modifiers to be {@code final} is out of
  * editor-fold segment code generation.</p>
  *
@@ -74,8 +82,16 @@ public class Record extends AbstractFilteredFieldsGenerator {
     private static Selector<Field> NON_FINAL__NON_STATIC = Selector.compile("!final & ! static ");
     private static final Selector<Method> VOID = Selector.compile("void");
 
+    /**
+     * The name of the field that caches the hash code when the
+     * configuration {@code cacheHash} is {@code yes}. The field is
+     * generated into the segment and it is not a record component.
+     */
+    private static final String HASH_CACHE = "hashCodeCache";
+
     private static class Config {
         private String filter;
+        private String cacheHash = "no";
     }
 
     public void process(Source source,
@@ -85,6 +101,8 @@ public class Record extends AbstractFilteredFieldsGenerator {
                         Segment segment
     ) {
         classAssertions(klass);
+        final var cacheHash = toBoolean(global == null ? config.cacheHash : localConfig(global).cacheHash);
+        final var components = components(fields, cacheHash);
 
         final List<Field> sortedFields;
         final String validator;
@@ -92,14 +110,14 @@ public class Record extends AbstractFilteredFieldsGenerator {
         try (final var javaLexed = new JavaLexed(source)) {
             validator = getValidatorMethodName(klass);
             makeClassFinal(klass, javaLexed);
-            makeFieldsFinal(fields, javaLexed);
-            sortedFields = getFieldsSorted(fields, javaLexed);
+            makeFieldsFinal(components, javaLexed);
+            sortedFields = getFieldsSorted(components, javaLexed);
             argumentDeclaration = calculateArgsDeclaration(sortedFields);
             fixValidatorArguments(javaLexed, validator, argumentDeclaration);
         }
         generateConstructor(klass, segment, sortedFields, validator, argumentDeclaration);
         generateGetters(segment, sortedFields);
-        generateHashCode(segment, sortedFields);
+        generateHashCode(segment, sortedFields, cacheHash);
         generateEquals(segment, sortedFields, klass);
     }
 
@@ -261,6 +279,20 @@ public class Record extends AbstractFilteredFieldsGenerator {
         }
     }
 
+    /**
+     * @param fields    the fields of the class
+     * @param cacheHash {@code true} if the hash code is cached
+     * @return the fields without the generated hash code cache, which is
+     * not part of the record. A field with the same name is a component
+     * when the hash code is not cached.
+     */
+    private static Field[] components(Field[] fields, boolean cacheHash) {
+        if (!cacheHash) {
+            return fields;
+        }
+        return Arrays.stream(fields).filter(field -> !field.getName().equals(HASH_CACHE)).toArray(Field[]::new);
+    }
+
     private static final Selector<Class<?>> NOT_FINAL = Selector.compile("!final");
 
     /**
@@ -278,11 +310,41 @@ public class Record extends AbstractFilteredFieldsGenerator {
         }
     }
 
-    private void generateHashCode(Segment segment, List<Field> fields) {
+    /**
+     * Generate the {@code hashCode()} method. The generated code does
+     * not call {@code java.util.Objects.hash()} to avoid the allocation
+     * of the argument array and the boxing of the primitive fields.
+     *
+     * <p> When {@code cacheHash} is {@code yes} then the hash code is
+     * calculated only once and it is stored in a {@code transient}
+     * field. The fields of the record are final, but this is correct
+     * only if the objects they reference are also immutable. Zero is
+     * used to signal the not yet calculated value, the same way as
+     * {@code String} does, so a hash code of zero is recalculated
+     * every time.
+     *
+     * @param segment   where the code is written
+     * @param fields    the record fields in the order of declaration
+     * @param cacheHash {@code true} if the hash code is cached
+     */
+    private void generateHashCode(Segment segment, List<Field> fields, boolean cacheHash) {
+        if (cacheHash) {
+            segment.write("private transient int %s;", HASH_CACHE).newline();
+        }
         segment.write("@Override");
         segment.write_r("public int hashCode() {");
-        segment.write("return java.util.Objects.hash(%s);",
-            fields.stream().map(Field::getName).collect(Collectors.joining(", ")));
+        if (cacheHash) {
+            segment.write("int result = %s;", HASH_CACHE);
+            segment.write_r("if (result == 0) {");
+            segment.write("result = 1;");
+            HashCodeTools.writeHashStatements(segment, fields);
+            segment.write("%s = result;", HASH_CACHE);
+            segment.write_l("}");
+        } else {
+            segment.write("int result = 1;");
+            HashCodeTools.writeHashStatements(segment, fields);
+        }
+        segment.write("return result;");
         segment.write_l("}").newline();
     }
 
@@ -313,6 +375,7 @@ public class Record extends AbstractFilteredFieldsGenerator {
     }
 
     private static final java.util.Set<String> implementedKeys = new java.util.HashSet<>(java.util.Arrays.asList(
+        "cacheHash",
         "filter",
         "id"
     ));
@@ -322,6 +385,11 @@ public class Record extends AbstractFilteredFieldsGenerator {
         return implementedKeys;
     }
     public class Builder implements javax0.geci.api.GeneratorBuilder {
+        public Builder cacheHash(String cacheHash) {
+            config.cacheHash = cacheHash;
+            return this;
+        }
+
         public Builder filter(String filter) {
             config.filter = filter;
             return this;
@@ -333,6 +401,7 @@ public class Record extends AbstractFilteredFieldsGenerator {
     }
     private Config localConfig(CompoundParams params){
         final var local = new Config();
+        local.cacheHash = params.get("cacheHash", config.cacheHash);
         local.filter = params.get("filter", config.filter);
         return local;
     }
@@ -1,6 +1,7 @@
 package javax0.geci.repeated;
 
 import javax0.geci.api.GeciException;
+import javax0.geci.api.Segment;
 import javax0.geci.api.Source;
 import javax0.geci.core.annotations.AnnotationBuilder;
 import javax0.geci.templated.Context;
@@ -13,16 +14,27 @@ import javax0.geci.tools.Tracer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.IntStream;
 
 @AnnotationBuilder
 public class Repeated extends AbstractJavaGenerator {
+    /**
+     * The values are rendered in more chunks than the number of the
+     * threads so that a slower chunk does not leave the other threads
+     * idle.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
     private class Config {
         private String start = ".*//\\s*START\\s*";
         private String matchLine = "(.*)";
@@ -31,6 +43,7 @@ public class Repeated extends AbstractJavaGenerator {
         private String templateEnd = "\\s*\\*/\\s*";
         private String values = null;
         private Function<Class, List<String>> valuesSupplier = null;
+        private boolean parallel = false;
         private CharSequence selector = "";
         private final CharSequence template = "";
         private Context ctx = new Triplet();
@@ -62,9 +75,160 @@ public class Repeated extends AbstractJavaGenerator {
         }
     }
 
+    /**
+     * The result of scanning a source for the values and the templates.
+     */
+    private static class Scan {
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, String> templates = new LinkedHashMap<>();
+    }
+
+    /**
+     * The scanned sources keyed by the name of the file, the hash of the
+     * lines and the patterns. The generator scans the same source in
+     * every phase, and the cache is valid only during a single run.
+     */
+    private final Map<String, Scan> scans = new ConcurrentHashMap<>();
+
+    @Override
+    public void context(javax0.geci.api.Context context) {
+        scans.clear();
+    }
+
     @Override
     public void process(Source source, Class<?> klass, CompoundParams global) throws Exception {
         final var local = localConfig(global);
+        final var scan = scan(source, local);
+        config.templatesMap.putAll(scan.templates);
+        final var loopVars = new ArrayList<>(scan.values);
+        if (local.values != null) {
+            Tracer.log("Adding configured values [" + local.values + "]");
+            loopVars.addAll(Arrays.asList(local.values.split(",")));
+        }
+        if (local.valuesSupplier != null) {
+            Tracer.log("Adding values from configured values supplier");
+            loopVars.addAll(local.valuesSupplier.apply(klass));
+        }
+        Tracer.log("final list of values: [" + String.join(",", loopVars) + "]");
+        for (final var key : config.templatesMap.keySet()) {
+            try (final var pos = Tracer.push("Segment", key)) {
+                final String segmentKey;
+                if (key.isEmpty()) {
+                    Tracer.log("This is the ID segment named '" + global.id() + "'");
+                    segmentKey = global.id();
+                } else {
+                    segmentKey = key;
+                }
+                try(final var segment = source.open(segmentKey)) {
+                    final var template = config.templatesMap.get(key);
+                    if (template != null) {
+                        Tracer.log("Template", null, template);
+                        config.ctx.triplet(source, klass, segment);
+                        final var resolver = config.resolverMap.get(key);
+                        final var define = config.defineMap.get(key);
+                        final var templateContent = TemplateLoader.getTemplateContent(template);
+                        Tracer.log("TemplateContent", null, templateContent);
+                        final var resolvedTemplate = resolver == null ? templateContent : resolver.apply(config.ctx, templateContent);
+                        if (!config.parallel || loopVars.size() < 2 || config.ctx.getClass() != Triplet.class || Tracer.isOn()
+                                || !expand(source, klass, segment, define, resolvedTemplate, loopVars)) {
+                            for (final var loopVar : loopVars) {
+                                segment.param("value", loopVar);
+                                if (define != null) {
+                                    define.accept(config.ctx, loopVar);
+                                }
+                                if (Tracer.isOn()) {
+                                    try (final var segmentParamsPos = Tracer.push("SegmentParams", null)) {
+                                        segment.traceParams();
+                                        segment.write(resolvedTemplate);
+                                    }
+                                } else {
+                                    segment.write(resolvedTemplate);
+                                }
+                            }
+                        }
+                        segment.traceLines();
+                    } else {
+                        Tracer.log("Template " + key + " does not exist");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Render the values concurrently. The values are split into chunks,
+     * each chunk is rendered into a fork of the segment with its own
+     * context, and the forks are appended to the segment in the order
+     * of the values. Appending the forks also copies their parameters,
+     * thus {@code value} is left set to the last value the same way as
+     * after the sequential loop. Nothing is rendered if the segment
+     * cannot be forked.
+     *
+     * @param source   passed to the context of the {@code define}
+     * @param klass    passed to the context of the {@code define}
+     * @param segment  the segment to write the rendered values into
+     * @param define   the callback that defines the parameters for the
+     *                 value or {@code null}
+     * @param template the template to render for each value
+     * @param values   the values
+     * @return {@code true} if the values were rendered, {@code false}
+     * if the segment cannot be forked and the values have to be
+     * rendered sequentially
+     */
+    private static boolean expand(Source source,
+                                  Class<?> klass,
+                                  Segment segment,
+                                  BiConsumer<Context, String> define,
+                                  String template,
+                                  List<String> values) {
+        final var chunks = Math.min(values.size(), CHUNKS_PER_THREAD * ForkJoinPool.getCommonPoolParallelism());
+        final var forks = new ArrayList<Segment>(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            final var fork = segment.fork();
+            if (fork == null) {
+                return false;
+            }
+            forks.add(fork);
+        }
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            final var fork = forks.get(chunk);
+            final var ctx = new Triplet().triplet(source, klass, fork);
+            final var end = (int) ((long) values.size() * (chunk + 1) / chunks);
+            for (int i = (int) ((long) values.size() * chunk / chunks); i < end; i++) {
+                fork.param("value", values.get(i));
+                if (define != null) {
+                    define.accept(ctx, values.get(i));
+                }
+                fork.write(template);
+            }
+        });
+        for (final var fork : forks) {
+            segment.append(fork);
+        }
+        return true;
+    }
+
+    /**
+     * Get the values and the templates from the source. The result is
+     * not cached while tracing, because the scanning of the lines is
+     * traced.
+     *
+     * @param source the source to scan
+     * @param local  the configuration holding the patterns
+     * @return the values and the templates found in the source
+     */
+    private Scan scan(Source source, Config local) {
+        final var lines = source.getLines();
+        if (Tracer.isOn()) {
+            return scan(lines, local);
+        }
+        final var key = String.join("\n", source.getAbsoluteFile(), "" + lines.hashCode(),
+                local.start, local.matchLine, local.end, local.templateStart, local.templateEnd);
+        return scans.computeIfAbsent(key, k -> scan(lines, local));
+    }
+
+    private static Scan scan(List<String> lines, Config local) {
+        final var scan = new Scan();
         final var startPattern = Pattern.compile(local.start);
         final var matchLinePattern = Pattern.compile(local.matchLine);
         final var endPattern = Pattern.compile(local.end);
@@ -79,12 +243,12 @@ public class Repeated extends AbstractJavaGenerator {
         }
         boolean switchOn = false;
         boolean templateOn = false;
-        final var loopVars = new ArrayList<String>();
+        final var loopVars = scan.values;
         final var parsed = new StringBuilder();
         var selector = "";
         int templateTabbing = 0;
         try (final var x = Tracer.push("TemplateSearch", "searching...")) {
-            for (final var line : source.getLines()) {
+            for (final var line : lines) {
                 if (templateOn) {
                     Tracer.push("TemplateLine", line.substring(line.length() > templateTabbing ? templateTabbing : 0));
                 } else if (switchOn) {
@@ -121,7 +285,7 @@ public class Repeated extends AbstractJavaGenerator {
                     Tracer.prepend("[STOP]");
                     templateOn = false;
                     deleteTrailingNewLine(parsed);
-                    config.templatesMap.put(selector, TemplateLoader.quote(parsed.toString()));
+                    scan.templates.put(selector, TemplateLoader.quote(parsed.toString()));
                     parsed.delete(0, parsed.length());
                     Tracer.pop();
                     Tracer.pop();
@@ -155,54 +319,10 @@ public class Repeated extends AbstractJavaGenerator {
                 Tracer.pop();
             }
         }
-        if (local.values != null) {
-            Tracer.log("Adding configured values [" + local.values + "]");
-            loopVars.addAll(Arrays.asList(local.values.split(",")));
-        }
-        if (local.valuesSupplier != null) {
-            Tracer.log("Adding values from configured values supplier");
-            loopVars.addAll(local.valuesSupplier.apply(klass));
-        }
-        Tracer.log("final list of values: [" + String.join(",", loopVars) + "]");
-        for (final var key : config.templatesMap.keySet()) {
-            try (final var pos = Tracer.push("Segment", key)) {
-                final String segmentKey;
-                if (key.isEmpty()) {
-                    Tracer.log("This is the ID segment named '" + global.id() + "'");
-                    segmentKey = global.id();
-                } else {
-                    segmentKey = key;
-                }
-                try(final var segment = source.open(segmentKey)) {
-                    final var template = config.templatesMap.get(key);
-                    if (template != null) {
-                        Tracer.log("Template", null, template);
-                        config.ctx.triplet(source, klass, segment);
-                        final var resolver = config.resolverMap.get(key);
-                        final var define = config.defineMap.get(key);
-                        final var templateContent = TemplateLoader.getTemplateContent(template);
-                        Tracer.log("TemplateContent", null, templateContent);
-                        final var resolvedTemplate = resolver == null ? templateContent : resolver.apply(config.ctx, templateContent);
-                        for (final var loopVar : loopVars) {
-                            segment.param("value", loopVar);
-                            if (define != null) {
-                                define.accept(config.ctx, loopVar);
-                            }
-                            try (final var segmentParamsPos = Tracer.push("SegmentParams", null)) {
-                                segment.traceParams();
-                                segment.write(resolvedTemplate);
-                            }
-                        }
-                        segment.traceLines();
-                    } else {
-                        Tracer.log("Template " + key + " does not exist");
-                    }
-                }
-            }
-        }
+        return scan;
     }
 
-    private void deleteTrailingNewLine(StringBuilder parsed) {
+    private static void deleteTrailingNewLine(StringBuilder parsed) {
         if (parsed.length() > 0 && parsed.charAt(parsed.length() - 1) == '\n') {
             parsed.deleteCharAt(parsed.length() - 1);
             if (parsed.length() > 0 && parsed.charAt(parsed.length() - 1) == '\r') {
@@ -270,6 +390,11 @@ public class Repeated extends AbstractJavaGenerator {
             return this;
         }
 
+        public Builder parallel(boolean parallel) {
+            config.parallel = parallel;
+            return this;
+        }
+
         public Builder resolver(java.util.function.BiFunction<javax0.geci.templated.Context,String,String> resolver) {
             config.setResolver(resolver);
             return this;
@@ -325,6 +450,7 @@ public class Repeated extends AbstractJavaGenerator {
         local.setDefine(config.define);
         local.end = params.get("end", config.end);
         local.matchLine = params.get("matchLine", config.matchLine);
+        local.parallel = config.parallel;
         local.setResolver(config.resolver);
         local.selector = config.selector;
         local.start = params.get("start", config.start);
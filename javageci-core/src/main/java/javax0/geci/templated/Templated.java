@@ -10,6 +10,7 @@ import javax0.geci.tools.CompoundParams;
 import javax0.geci.tools.GeciReflectionTools;
 import javax0.geci.tools.JVM8Tools;
 import javax0.geci.tools.TemplateLoader;
+import javax0.geci.tools.Tracer;
 import javax0.geci.tools.reflection.Selector;
 
 import java.lang.annotation.Annotation;
@@ -20,10 +21,12 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static javax0.geci.tools.JVM8Tools.getPackageName;
 
@@ -44,6 +47,26 @@ public class Templated extends AbstractJavaGenerator {
         return 2;
     }
 
+    /**
+     * Caches that live for one code generation run. Many members use
+     * the same filter expressions and templates, there is no reason to
+     * compile or load them again for each.
+     */
+    private final Map<String, Selector> selectors = new ConcurrentHashMap<>();
+    private final Map<String, String> templateContents = new ConcurrentHashMap<>();
+    /**
+     * The names and types of the members of the class being processed.
+     * They are needed when the member itself is processed and again
+     * when the members are listed in the {@code processXxxs} templates.
+     */
+    private final Map<Object, String[]> descriptors = new ConcurrentHashMap<>();
+
+    @Override
+    public void context(javax0.geci.api.Context context) {
+        selectors.clear();
+        templateContents.clear();
+    }
+
     private static final Consumer NOOP = a -> {
     };
     private static final BiConsumer BiNOOP = (s, a) -> {
@@ -58,6 +81,7 @@ public class Templated extends AbstractJavaGenerator {
         private String classFilter = "true";
         private String memberClassFilter = "true";
         private boolean declaredOnly = true;
+        private boolean parallel = false;
         private String selector = "";
         private final Map<String, Templates> templatesMap = new HashMap<>();
 
@@ -195,6 +219,7 @@ public class Templated extends AbstractJavaGenerator {
 
     @Override
     public final void process(Source source, Class<?> klass, CompoundParams global) throws Exception {
+        descriptors.clear();
         try (final var segment = source.open(global.id())) {
             if (phase == 0) {
                 preprocess(source, klass, global, segment);
@@ -220,7 +245,7 @@ public class Templated extends AbstractJavaGenerator {
 
             } else {
                 var local = localConfig(global);
-                final var selector = Selector.compile(local.classFilter);
+                final var selector = selector(local.classFilter);
                 final var selectedClasses = classes.stream()
                                                 .filter(selector::match)
                                                 .sorted(Comparator.comparing(Class::getName))
@@ -243,14 +268,17 @@ public class Templated extends AbstractJavaGenerator {
                                        Method[] methods,
                                        List<Method> selectedMethods)
             throws Exception {
+        final var selectedParams = new ArrayList<CompoundParams>();
         for (final var method : methods) {
             var params = new CompoundParams(GeciReflectionTools.getParameters(method, mnemonic()), global);
             var local = localConfig(params);
-            if (Selector.compile(local.methodFilter).match(method)) {
+            if (selector(local.methodFilter).match(method)) {
                 selectedMethods.add(method);
-                process(source, klass, params, method, segment);
+                selectedParams.add(params);
             }
         }
+        expand(segment, selectedMethods.size(), (i, ctx, target) ->
+                processMethod(ctx, source, klass, selectedParams.get(i), selectedMethods.get(i), target));
     }
 
     private void processFieldsLooping(Source source,
@@ -259,14 +287,17 @@ public class Templated extends AbstractJavaGenerator {
                                       Segment segment,
                                       Field[] fields,
                                       List<Field> selectedFields) {
+        final var selectedParams = new ArrayList<CompoundParams>();
         for (final var field : fields) {
             var params = new CompoundParams(GeciReflectionTools.getParameters(field, mnemonic()), global);
             var local = localConfig(params);
-            if (Selector.compile(local.fieldFilter).match(field)) {
+            if (selector(local.fieldFilter).match(field)) {
                 selectedFields.add(field);
-                process(source, klass, params, field, segment);
+                selectedParams.add(params);
             }
         }
+        expand(segment, selectedFields.size(), (i, ctx, target) ->
+                processField(ctx, source, klass, selectedParams.get(i), selectedFields.get(i), target));
     }
 
     private void processMemberClassesLooping(Source source,
@@ -275,14 +306,17 @@ public class Templated extends AbstractJavaGenerator {
                                              Segment segment,
                                              Class[] classes,
                                              List<Class> selectedClasses) {
+        final var selectedParams = new ArrayList<CompoundParams>();
         for (final var memberClass : classes) {
             var params = new CompoundParams(GeciReflectionTools.getParameters(memberClass, mnemonic()), global);
             var local = localConfig(params);
-            if (Selector.compile(local.memberClassFilter).match(memberClass)) {
+            if (selector(local.memberClassFilter).match(memberClass)) {
                 selectedClasses.add(memberClass);
-                process(source, klass, params, memberClass, segment);
+                selectedParams.add(params);
             }
         }
+        expand(segment, selectedClasses.size(), (i, ctx, target) ->
+                processMemberClass(ctx, source, klass, selectedParams.get(i), selectedClasses.get(i), target));
     }
 
     private void preprocessClass(Source source, Class<?> klass, List<Class<?>> selectedClasses, CompoundParams global, Segment segment) {
@@ -296,14 +330,7 @@ public class Templated extends AbstractJavaGenerator {
 
     public void processClass(Source source, Class<?> klass, Class<?> listedClass, CompoundParams global, Segment segment) {
         final var local = localConfig(global);
-        setParams(segment, "class.",
-                "SimpleName", listedClass.getSimpleName(),
-                "Name", listedClass.getName(),
-                "CanonicalName", listedClass.getCanonicalName(),
-                "Package", getPackageName(listedClass),
-                "TypeName", listedClass.getTypeName(),
-                "GenericString", listedClass.toGenericString()
-        );
+        setParams(segment, "class.", CLASS_KEYS, describe(listedClass), 0);
         setTripletInContext(source, klass, segment);
         config.processClassParams.accept(config.ctx, listedClass);
         segment.write(
@@ -318,23 +345,10 @@ public class Templated extends AbstractJavaGenerator {
         );
         int i = 0;
         for (final var selectedClass : classes) {
-            setParams(segment, "class." + i + ".",
-                    "SimpleName", selectedClass.getSimpleName(),
-                    "Name", selectedClass.getName(),
-                    "CanonicalName", selectedClass.getCanonicalName(),
-                    "Package", getPackageName(selectedClass),
-                    "TypeName", selectedClass.getTypeName(),
-                    "GenericString", selectedClass.toGenericString()
-            );
+            final var descriptor = describe(selectedClass);
+            setParams(segment, "class." + i + ".", CLASS_KEYS, descriptor, 0);
             i++;
-            setParams(segment, "class." + selectedClass.getName() + ".",
-                    "SimpleName", selectedClass.getSimpleName(),
-                    "Name", selectedClass.getName(),
-                    "CanonicalName", selectedClass.getCanonicalName(),
-                    "Package", getPackageName(selectedClass),
-                    "TypeName", selectedClass.getTypeName(),
-                    "GenericString", selectedClass.toGenericString()
-            );
+            setParams(segment, "class." + selectedClass.getName() + ".", CLASS_KEYS, descriptor, 0);
         }
         setTripletInContext(source, klass, segment);
         config.postprocessClassParams.accept(config.ctx);
@@ -345,14 +359,7 @@ public class Templated extends AbstractJavaGenerator {
 
     public void preprocess(Source source, Class<?> klass, CompoundParams global, Segment segment) {
         final var local = localConfig(global);
-        setParams(segment, "this.",
-                "SimpleName", klass.getSimpleName(),
-                "Name", klass.getName(),
-                "CanonicalName", klass.getCanonicalName(),
-                "Package", getPackageName(klass),
-                "TypeName", klass.getTypeName(),
-                "GenericString", klass.toGenericString()
-        );
+        setParams(segment, "this.", CLASS_KEYS, describe(klass), 0);
         setTripletInContext(source, klass, segment);
         config.preprocessParams.accept(config.ctx);
         for (final var key : global.keySet()) {
@@ -365,92 +372,109 @@ public class Templated extends AbstractJavaGenerator {
     }
 
     public void process(Source source, Class<?> klass, CompoundParams params, Field field, Segment segment) {
+        processField(config.ctx, source, klass, params, field, segment);
+    }
+
+    private void processField(Context ctx, Source source, Class<?> klass, CompoundParams params, Field field, Segment segment) {
         final var local = localConfig(params);
-        final var fieldType = field.getType();
-        setParams(segment, "field.",
-                "name", field.getName(),
-                "genericString", field.toGenericString(),
-                "classSimpleName", fieldType.getSimpleName(),
-                "className", fieldType.getName(),
-                "classCanonicalName", fieldType.getCanonicalName(),
-                "classPackage", getPackageName(fieldType),
-                "classTypeName", fieldType.getTypeName(),
-                "classGenericString", fieldType.toGenericString()
-        );
-        setTripletInContext(source, klass, segment);
-        config.processFieldParams.accept(config.ctx, field);
-        for (final var key : params.keySet()) {
-            segment.param(key, params.get(key));
-        }
-        segment.write(
-                config.processFieldResolv.apply(config.ctx,
-                        getTemplateContent(local.processField, templates(local).processField)));
-        for (final var key : segment.paramKeySet()) {
-            if (key.startsWith("field.")) {
-                segment.param(key, null);
-            }
+        try (final var memberScope = segment.paramScope(pairs(FIELD_KEYS, describe(field)))) {
+            ctx.triplet(source, klass, segment);
+            config.processFieldParams.accept(ctx, field);
+            segment.param(pairs(params));
+            segment.write(
+                    config.processFieldResolv.apply(ctx,
+                            getTemplateContent(local.processField, templates(local).processField)));
         }
     }
 
 
     public void process(Source source, Class<?> klass, CompoundParams params, Class memberClass, Segment segment) {
+        processMemberClass(config.ctx, source, klass, params, memberClass, segment);
+    }
+
+    private void processMemberClass(Context ctx, Source source, Class<?> klass, CompoundParams params, Class memberClass, Segment segment) {
         final var local = localConfig(params);
-        setParams(segment, "memberClass.",
-                "SimpleName", memberClass.getSimpleName(),
-                "Name", memberClass.getName(),
-                "CanonicalName", memberClass.getCanonicalName(),
-                "Package", getPackageName(memberClass),
-                "TypeName", memberClass.getTypeName(),
-                "GenericString", memberClass.toGenericString()
-        );
-        setTripletInContext(source, klass, segment);
-        config.processMemberClassParams.accept(config.ctx, memberClass);
-        for (final var key : params.keySet()) {
-            segment.param(key, params.get(key));
-        }
-        segment.write(
-                config.processMemberClassResolv.apply(config.ctx,
-                        getTemplateContent(local.processMemberClass, templates(local).processMemberClass)));
-        for (final var key : segment.paramKeySet()) {
-            if (key.startsWith("memberClass.")) {
-                segment.param(key, null);
-            }
+        try (final var memberScope = segment.paramScope(pairs(MEMBER_CLASS_KEYS, describe(memberClass)))) {
+            ctx.triplet(source, klass, segment);
+            config.processMemberClassParams.accept(ctx, memberClass);
+            segment.param(pairs(params));
+            segment.write(
+                    config.processMemberClassResolv.apply(ctx,
+                            getTemplateContent(local.processMemberClass, templates(local).processMemberClass)));
         }
     }
 
     public void process(Source source, Class<?> klass, CompoundParams params, Method method, Segment segment) {
+        processMethod(config.ctx, source, klass, params, method, segment);
+    }
+
+    private void processMethod(Context ctx, Source source, Class<?> klass, CompoundParams params, Method method, Segment segment) {
         final var local = localConfig(params);
-        final var returnType = method.getReturnType();
-        setParams(segment, "method.",
-                "name", method.getName(),
-                "genericString", method.toGenericString(),
-                "returnClassSimpleName", returnType.getSimpleName(),
-                "returnClassName", returnType.getName(),
-                "returnClassCanonicalName", returnType.getCanonicalName(),
-                "returnClassPackage", getPackageName(returnType),
-                "returnClassTypeName", returnType.getTypeName(),
-                "returnClassGenericString", returnType.toGenericString()
-        );
-        setTripletInContext(source, klass, segment);
-        config.processMethodParams.accept(config.ctx, method);
-        for (final var key : params.keySet()) {
-            segment.param(key, params.get(key));
-        }
-        segment.write(
-                config.processMethodResolv.apply(config.ctx,
-                        getTemplateContent(local.processMethod, templates(local).processMethod)));
-        for (final var key : segment.paramKeySet()) {
-            if (key.startsWith("method.")) {
-                segment.param(key, null);
-            }
+        try (final var memberScope = segment.paramScope(pairs(METHOD_KEYS, describe(method)))) {
+            ctx.triplet(source, klass, segment);
+            config.processMethodParams.accept(ctx, method);
+            segment.param(pairs(params));
+            segment.write(
+                    config.processMethodResolv.apply(ctx,
+                            getTemplateContent(local.processMethod, templates(local).processMethod)));
         }
     }
 
     private String getTemplateContent(String localTemplateName, String globalTemplateName) {
-        if (localTemplateName != null) {
-            return TemplateLoader.getTemplateContent(localTemplateName);
+        final var name = localTemplateName != null ? localTemplateName : globalTemplateName;
+        if (name == null) {
+            return null;
         }
-        return TemplateLoader.getTemplateContent(globalTemplateName);
+        return templateContents.computeIfAbsent(name, TemplateLoader::getTemplateContent);
+    }
+
+    @FunctionalInterface
+    private interface MemberProcessor {
+        void process(int i, Context ctx, Segment segment);
+    }
+
+    /**
+     * Process the selected members. When the generator is configured to
+     * be {@code parallel} the members are rendered concurrently, each
+     * into a fork of the segment, and the forks are appended to the
+     * segment in the order of the members. The result is the same as
+     * the sequential processing.
+     *
+     * <p>The members are processed sequentially if the context is not a
+     * plain {@link Triplet}, because the context is shared by the
+     * callbacks, and a custom context may hold other state as well. The
+     * members are also processed sequentially when tracing is switched
+     * on or when the segment cannot be forked.
+     *
+     * @param segment   the segment to write the members into
+     * @param n         the number of the selected members
+     * @param processor processes the {@code i}-th member
+     */
+    private void expand(Segment segment, int n, MemberProcessor processor) {
+        if (config.parallel && n > 1 && config.ctx.getClass() == Triplet.class && !Tracer.isOn()) {
+            final var forks = new ArrayList<Segment>(n);
+            for (int i = 0; i < n; i++) {
+                final var fork = segment.fork();
+                if (fork == null) {
+                    break;
+                }
+                forks.add(fork);
+            }
+            if (forks.size() == n) {
+                IntStream.range(0, n).parallel().forEach(i -> processor.process(i, new Triplet(), forks.get(i)));
+                for (final var fork : forks) {
+                    segment.append(fork);
+                }
+                return;
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            processor.process(i, config.ctx, segment);
+        }
+    }
+
+    private Selector selector(String filter) {
+        return selectors.computeIfAbsent(filter, Selector::compile);
     }
 
     private Templates templates(Config local) {
@@ -467,27 +491,10 @@ public class Templated extends AbstractJavaGenerator {
         );
         int i = 0;
         for (final var field : fields) {
-            final var fieldType = field.getType();
-            final var name = field.getName();
-            setParams(segment, "field." + i + ".",
-                    "GenericString", field.toGenericString(),
-                    "ClassSimpleName", fieldType.getSimpleName(),
-                    "ClassName", fieldType.getName(),
-                    "ClassCanonicalName", fieldType.getCanonicalName(),
-                    "ClassPackage", getPackageName(fieldType),
-                    "ClassTypeName", fieldType.getTypeName(),
-                    "ClassGenericString", fieldType.toGenericString()
-            );
+            final var descriptor = describe(field);
+            setParams(segment, "field." + i + ".", FIELDS_KEYS, descriptor, 1);
             i++;
-            setParams(segment, "field." + name + ".",
-                    "GenericString", field.toGenericString(),
-                    "ClassSimpleName", fieldType.getSimpleName(),
-                    "ClassName", fieldType.getName(),
-                    "ClassCanonicalName", fieldType.getCanonicalName(),
-                    "ClassPackage", getPackageName(fieldType),
-                    "ClassTypeName", fieldType.getTypeName(),
-                    "ClassGenericString", fieldType.toGenericString()
-            );
+            setParams(segment, "field." + field.getName() + ".", FIELDS_KEYS, descriptor, 1);
         }
         setTripletInContext(source, klass, segment);
         config.processFieldsParams.accept(config.ctx);
@@ -503,27 +510,10 @@ public class Templated extends AbstractJavaGenerator {
         );
         int i = 0;
         for (final var method : methods) {
-            final var returnType = method.getReturnType();
-            final var name = method.getName();
-            setParams(segment, "method." + i + ".",
-                    "GenericString", method.toGenericString(),
-                    "ReturnClassSimpleName", returnType.getSimpleName(),
-                    "ReturnClassName", returnType.getName(),
-                    "ReturnClassCanonicalName", returnType.getCanonicalName(),
-                    "ReturnClassPackage", getPackageName(returnType),
-                    "ReturnClassTypeName", returnType.getTypeName(),
-                    "ReturnClassGenericString", returnType.toGenericString()
-            );
+            final var descriptor = describe(method);
+            setParams(segment, "method." + i + ".", METHODS_KEYS, descriptor, 1);
             i++;
-            setParams(segment, "method." + name + ".",
-                    "GenericString", method.toGenericString(),
-                    "ReturnClassSimpleName", returnType.getSimpleName(),
-                    "ReturnClassName", returnType.getName(),
-                    "ReturnClassCanonicalName", returnType.getCanonicalName(),
-                    "ReturnClassPackage", getPackageName(returnType),
-                    "ReturnClassTypeName", returnType.getTypeName(),
-                    "ReturnClassGenericString", returnType.toGenericString()
-            );
+            setParams(segment, "method." + method.getName() + ".", METHODS_KEYS, descriptor, 1);
         }
         setTripletInContext(source, klass, segment);
         config.processMethodsParams.accept(config.ctx);
@@ -539,23 +529,10 @@ public class Templated extends AbstractJavaGenerator {
         );
         int i = 0;
         for (final var memberClass : classes) {
-            setParams(segment, "memberClass." + i + ".",
-                    "SimpleName", memberClass.getSimpleName(),
-                    "Name", memberClass.getName(),
-                    "CanonicalName", memberClass.getCanonicalName(),
-                    "Package", getPackageName(memberClass),
-                    "TypeName", memberClass.getTypeName(),
-                    "GenericString", memberClass.toGenericString()
-            );
+            final var descriptor = describe(memberClass);
+            setParams(segment, "memberClass." + i + ".", CLASS_KEYS, descriptor, 0);
             i++;
-            setParams(segment, "memberClass." + memberClass.getName() + ".",
-                    "SimpleName", memberClass.getSimpleName(),
-                    "Name", memberClass.getName(),
-                    "CanonicalName", memberClass.getCanonicalName(),
-                    "Package", getPackageName(memberClass),
-                    "TypeName", memberClass.getTypeName(),
-                    "GenericString", memberClass.toGenericString()
-            );
+            setParams(segment, "memberClass." + memberClass.getName() + ".", CLASS_KEYS, descriptor, 0);
         }
         setTripletInContext(source, klass, segment);
         config.processClassesParams.accept(config.ctx);
@@ -578,12 +555,97 @@ public class Templated extends AbstractJavaGenerator {
         config.ctx.triplet(source, klass, segment);
     }
 
-    private static void setParams(Segment segment, String prefix, String... keyValuePairs) {
-        if (keyValuePairs.length % 2 == 1) {
-            throw new IllegalArgumentException("Parameters to Segment.param() should be in pair");
+    private static final String[] CLASS_KEYS = {"SimpleName", "Name", "CanonicalName", "Package", "TypeName", "GenericString"};
+    private static final String[] MEMBER_CLASS_KEYS = prefixed("memberClass.", CLASS_KEYS);
+    private static final String[] FIELD_KEYS = {"field.name", "field.genericString", "field.classSimpleName",
+            "field.className", "field.classCanonicalName", "field.classPackage", "field.classTypeName",
+            "field.classGenericString"};
+    private static final String[] FIELDS_KEYS = {null, "GenericString", "ClassSimpleName", "ClassName",
+            "ClassCanonicalName", "ClassPackage", "ClassTypeName", "ClassGenericString"};
+    private static final String[] METHOD_KEYS = {"method.name", "method.genericString", "method.returnClassSimpleName",
+            "method.returnClassName", "method.returnClassCanonicalName", "method.returnClassPackage",
+            "method.returnClassTypeName", "method.returnClassGenericString"};
+    private static final String[] METHODS_KEYS = {null, "GenericString", "ReturnClassSimpleName", "ReturnClassName",
+            "ReturnClassCanonicalName", "ReturnClassPackage", "ReturnClassTypeName", "ReturnClassGenericString"};
+
+    private static String[] prefixed(String prefix, String[] keys) {
+        final var prefixedKeys = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            prefixedKeys[i] = prefix + keys[i];
+        }
+        return prefixedKeys;
+    }
+
+    /**
+     * The descriptors hold the values in the order of the keys in {@link
+     * #CLASS_KEYS}, {@link #FIELD_KEYS} and {@link #METHOD_KEYS}.
+     */
+    private String[] describe(Class<?> klass) {
+        return descriptors.computeIfAbsent(klass, k -> new String[]{
+                klass.getSimpleName(),
+                klass.getName(),
+                klass.getCanonicalName(),
+                getPackageName(klass),
+                klass.getTypeName(),
+                klass.toGenericString()
+        });
+    }
+
+    private String[] describe(Field field) {
+        return descriptors.computeIfAbsent(field, f -> {
+            final var fieldType = field.getType();
+            return new String[]{
+                    field.getName(),
+                    field.toGenericString(),
+                    fieldType.getSimpleName(),
+                    fieldType.getName(),
+                    fieldType.getCanonicalName(),
+                    getPackageName(fieldType),
+                    fieldType.getTypeName(),
+                    fieldType.toGenericString()
+            };
+        });
+    }
+
+    private String[] describe(Method method) {
+        return descriptors.computeIfAbsent(method, m -> {
+            final var returnType = method.getReturnType();
+            return new String[]{
+                    method.getName(),
+                    method.toGenericString(),
+                    returnType.getSimpleName(),
+                    returnType.getName(),
+                    returnType.getCanonicalName(),
+                    getPackageName(returnType),
+                    returnType.getTypeName(),
+                    returnType.toGenericString()
+            };
+        });
+    }
+
+    private static String[] pairs(String[] keys, String[] values) {
+        final var keyValuePairs = new String[2 * keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keyValuePairs[2 * i] = keys[i];
+            keyValuePairs[2 * i + 1] = values[i];
         }
-        for (int i = 0; i < keyValuePairs.length; i += 2) {
-            segment.param(prefix + keyValuePairs[i], keyValuePairs[i + 1]);
+        return keyValuePairs;
+    }
+
+    private static String[] pairs(CompoundParams params) {
+        final var keys = params.keySet();
+        final var keyValuePairs = new String[2 * keys.size()];
+        int i = 0;
+        for (final var key : keys) {
+            keyValuePairs[i++] = key;
+            keyValuePairs[i++] = params.get(key);
+        }
+        return keyValuePairs;
+    }
+
+    private static void setParams(Segment segment, String prefix, String[] keys, String[] values, int from) {
+        for (int i = from; i < keys.length; i++) {
+            segment.param(prefix + keys[i], values[i]);
         }
     }
 
@@ -658,6 +720,11 @@ public class Templated extends AbstractJavaGenerator {
             return this;
         }
 
+        public Builder parallel(boolean parallel) {
+            config.parallel = parallel;
+            return this;
+        }
+
         public Builder postprocess(String postprocess) {
             config.setPostprocess(postprocess);
             return this;
@@ -841,6 +908,7 @@ public class Templated extends AbstractJavaGenerator {
         local.generatedAnnotation = config.generatedAnnotation;
         local.memberClassFilter = params.get("memberClassFilter", config.memberClassFilter);
         local.methodFilter = params.get("methodFilter", config.methodFilter);
+        local.parallel = config.parallel;
         local.setPostprocess(params.get("postprocess", config.postprocess));
         local.setPostprocessClass(params.get("postprocessClass", config.postprocessClass));
         local.postprocessClassParams = config.postprocessClassParams;
@@ -136,6 +136,40 @@ class TestMapper {
             String.join("\n", source.getLines()));
     }
 
+    @Test
+    @DisplayName("Generates toMap and fromMap without the identity map cache when cycles='no'")
+    void testNoCycles() throws Exception {
+        // GIVEN
+        final var sut = Mapper.builder().build();
+        final var source = Source.mock(sut).lines("//<editor-fold id=\"mapper\">\n" +
+                                                      "//</editor-fold>")
+                               .getSource();
+        final CompoundParams global = new CompoundParamsBuilder("mapper cycles='no'").build();
+        // WHEN
+        sut.process(source, MappedClass2.class, global);
+
+        // THEN
+        source.consolidate();
+        Assertions.assertEquals("//<editor-fold id=\"mapper\">\n" +
+                                    "@javax0.geci.annotations.Generated(\"mapper\")\n" +
+                                    "public java.util.Map<String,Object> toMap() {\n" +
+                                    "    final java.util.Map<String,Object> map = new java.util.HashMap<>(2);\n" +
+                                    "    map.put(\"mySub\", mySub == null ? null : mySub.toMap());\n" +
+                                    "    return map;\n" +
+                                    "}\n" +
+                                    "@javax0.geci.annotations.Generated(\"mapper\")\n" +
+                                    "public static MappedClass2 fromMap(java.util.Map map) {\n" +
+                                    "    if (map == null) {\n" +
+                                    "        return null;\n" +
+                                    "    }\n" +
+                                    "    final MappedClass2 it = new MappedClass2();\n" +
+                                    "    it.mySub = javax0.geci.mapper.sutclasses.MappedClass2.SubClass.fromMap((java.util.Map<String,Object>)map.get(\"mySub\"));\n" +
+                                    "    return it;\n" +
+                                    "}\n" +
+                                    "//</editor-fold>",
+            String.join("\n", source.getLines()));
+    }
+
     @Test
     @DisplayName("When there is no 'mapper' segment in the source and default segment is not allowed then it throws exception")
     void testThrowsException() throws Exception {
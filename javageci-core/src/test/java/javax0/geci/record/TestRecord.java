@@ -6,8 +6,10 @@ import javax0.geci.record.sutclasses.ClassAbstract;
 import javax0.geci.record.sutclasses.ClassExtending;
 import javax0.geci.record.sutclasses.ToRecord;
 import javax0.geci.record.sutclasses.ToRecordAlreadyFinals;
+import javax0.geci.record.sutclasses.ToRecordCachedHash;
 import javax0.geci.record.sutclasses.ToRecordMultipleFields;
 import javax0.geci.record.sutclasses.ToRecordMultipleValidators;
+import javax0.geci.tools.CompoundParams;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.DisplayName;
@@ -15,6 +17,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.util.Map;
 
 class TestRecord {
 
@@ -65,7 +68,9 @@ class TestRecord {
                                     "\n" +
                                     "    @Override\n" +
                                     "    public int hashCode() {\n" +
-                                    "        return java.util.Objects.hash(z);\n" +
+                                    "        int result = 1;\n" +
+                                    "        result = 31 * result + java.util.Objects.hashCode(z);\n" +
+                                    "        return result;\n" +
                                     "    }\n" +
                                     "\n" +
                                     "    @Override\n" +
@@ -135,7 +140,10 @@ class TestRecord {
                                     "\n" +
                                     "    @Override\n" +
                                     "    public int hashCode() {\n" +
-                                    "        return java.util.Objects.hash(z, k);\n" +
+                                    "        int result = 1;\n" +
+                                    "        result = 31 * result + java.util.Objects.hashCode(z);\n" +
+                                    "        result = 31 * result + java.util.Objects.hashCode(k);\n" +
+                                    "        return result;\n" +
                                     "    }\n" +
                                     "\n" +
                                     "    @Override\n" +
@@ -208,7 +216,10 @@ class TestRecord {
                                     "\n" +
                                     "    @Override\n" +
                                     "    public int hashCode() {\n" +
-                                    "        return java.util.Objects.hash(z, k);\n" +
+                                    "        int result = 1;\n" +
+                                    "        result = 31 * result + java.util.Objects.hashCode(z);\n" +
+                                    "        result = 31 * result + java.util.Objects.hashCode(k);\n" +
+                                    "        return result;\n" +
                                     "    }\n" +
                                     "\n" +
                                     "    @Override\n" +
@@ -224,6 +235,80 @@ class TestRecord {
             String.join("\n", source.getLines()));
     }
 
+    @Test
+    @DisplayName("Generates cached, allocation free hashCode and ignores the cache field")
+    void testCachedHash() throws IOException {
+        // GIVEN
+        final var sut = Record.builder().build();
+        final var source = Source.mock(sut).lines("package javax0.geci.record;\n" +
+                                                  "\n" +
+                                                  "public class ToRecordCachedHash {\n" +
+                                                  "\n" +
+                                                  "    private int z;\n" +
+                                                  "    private double k;\n" +
+                                                  "\n" +
+                                                  "    //<editor-fold id=\"record\">\n" +
+                                                  "    private transient int hashCodeCache;\n" +
+                                                  "    //</editor-fold>\n" +
+                                                  "\n" +
+            "}\n")
+            .getSource();
+        final var fields = ToRecordCachedHash.class.getDeclaredFields();
+        final var segment = source.open("record");
+        Assumptions.assumeTrue(segment != null);
+
+        // WHEN
+        sut.process(source, ToRecordCachedHash.class, new CompoundParams("record", Map.of("cacheHash", "yes")), fields, segment);
+
+        // THEN
+        source.consolidate();
+        Assertions.assertEquals("package javax0.geci.record;\n" +
+                                    "\n" +
+                                    "public final class ToRecordCachedHash {\n" +
+                                    "\n" +
+                                    "    final private  int  z;\n" +
+                                    "    final private  double  k;\n" +
+                                    "\n" +
+                                    "    //<editor-fold id=\"record\">\n" +
+                                    "    public ToRecordCachedHash(final int z, final double k) {\n" +
+                                    "        this.z = z;\n" +
+                                    "        this.k = k;\n" +
+                                    "    }\n" +
+                                    "\n" +
+                                    "    public int getZ() {\n" +
+                                    "        return z;\n" +
+                                    "    }\n" +
+                                    "\n" +
+                                    "    public double getK() {\n" +
+                                    "        return k;\n" +
+                                    "    }\n" +
+                                    "\n" +
+                                    "    private transient int hashCodeCache;\n" +
+                                    "\n" +
+                                    "    @Override\n" +
+                                    "    public int hashCode() {\n" +
+                                    "        int result = hashCodeCache;\n" +
+                                    "        if (result == 0) {\n" +
+                                    "            result = 1;\n" +
+                                    "            result = 31 * result + Integer.hashCode(z);\n" +
+                                    "            result = 31 * result + Double.hashCode(k);\n" +
+                                    "            hashCodeCache = result;\n" +
+                                    "        }\n" +
+                                    "        return result;\n" +
+                                    "    }\n" +
+                                    "\n" +
+                                    "    @Override\n" +
+                                    "    public boolean equals(Object o) {\n" +
+                                    "        if (this == o) return true;\n" +
+                                    "        if (o == null || getClass() != o.getClass()) return false;\n" +
+                                    "        ToRecordCachedHash that = (ToRecordCachedHash) o;\n" +
+                                    "        return java.util.Objects.equals(that.z, z) && java.util.Objects.equals(that.k, k);\n" +
+                                    "    }\n" +
+                                    "    //</editor-fold>\n" +
+                                    "\n" +
+                                    "}", String.join("\n", source.getLines()));
+    }
+
     @Test
     @DisplayName("Throws exception when class extends other class")
     void testExtendingClass() throws IOException {
@@ -0,0 +1,12 @@
+package javax0.geci.record.sutclasses;
+
+public class ToRecordCachedHash {
+
+    private int z;
+    private double k;
+
+    //<editor-fold id="record">
+    private transient int hashCodeCache;
+    //</editor-fold>
+
+}
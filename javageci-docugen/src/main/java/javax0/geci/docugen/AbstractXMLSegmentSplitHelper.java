@@ -13,6 +13,7 @@ import static javax0.geci.tools.JVM8Tools.stripTrailing;
 public abstract class AbstractXMLSegmentSplitHelper extends RegexBasedSegmentSplitHelper {
     public AbstractXMLSegmentSplitHelper(Pattern startPattern, Pattern endPattern, Pattern defaultPattern) {
         super(startPattern, endPattern, defaultPattern);
+        setSnippetPrechecks();
     }
 
     public AbstractXMLSegmentSplitHelper() {
@@ -30,11 +31,25 @@ public abstract class AbstractXMLSegmentSplitHelper extends RegexBasedSegmentSpl
             Pattern.compile("DEFAULT SEGMENT") // probably will not match ever, if yes, c'mon!
 
         );
+        setSnippetPrechecks();
         setSegmentPreface("");
         setSegmentPostface("");
         defaultOffset = 4;
     }
 
+    /**
+     * All the start and end patterns of the snippet split helpers
+     * contain the word {@code snip}, except the end of a code block
+     * that is three back-ticks. The default pattern is never expected
+     * to match.
+     */
+    private void setSnippetPrechecks() {
+        setPrechecks(
+            line -> line.contains("snip"),
+            line -> line.contains("snip") || line.contains("```"),
+            line -> line.contains("DEFAULT SEGMENT"));
+    }
+
     /**
      * If the line starts with {@code <!-- } then the lines following it are appended to the line until one line is
      * finished using {@code -->}. This makes the use of multi-line segment start possible where the snippets are used.
@@ -0,0 +1,133 @@
+package javax0.geci.engine;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index of the markers that the sources contain. The content of a
+ * source file is scanned as bytes only once, when it is first asked,
+ * for all the markers the index was created for. The result is cached
+ * and later queries only check the cached bits.
+ *
+ * <p>The scanning is done on the raw bytes of the file. Files that do
+ * not contain any of the markers a generator declared are not handed
+ * over to the generator and unless some other generator needs them
+ * they are never read into {@link Source#lines}.
+ */
+class CandidateIndex {
+    /**
+     * The markers that signal a source that is likely to need code
+     * generation. These are used for the generators that do not declare
+     * their own markers when the prefiltering is switched on calling
+     * {@link Geci#prefilter()}. The commented out {@code //@Geci}
+     * configuration is also matched by {@code @Geci}, and {@code snip}
+     * matches the {@code <!-- snip name -->} segments of the markdown
+     * files as well as the {@code snippet} markers.
+     */
+    static final Set<String> STANDARD_MARKERS = Set.of("@Geci", "editor-fold", "/*!jamal", "snip");
+
+    private final List<byte[]> markers = new ArrayList<>();
+    private final Map<String, Integer> markerIndex = new HashMap<>();
+    private final int[][] byFirstByte = new int[256][];
+    private final Map<Source, BitSet> found = new HashMap<>();
+
+    CandidateIndex(Collection<String> markers) {
+        for (final var marker : new LinkedHashSet<>(markers)) {
+            if (marker.isEmpty()) {
+                continue;
+            }
+            markerIndex.put(marker, this.markers.size());
+            this.markers.add(marker.getBytes(StandardCharsets.UTF_8));
+        }
+        for (int i = 0; i < this.markers.size(); i++) {
+            final var first = this.markers.get(i)[0] & 0xFF;
+            final var old = byFirstByte[first];
+            if (old == null) {
+                byFirstByte[first] = new int[]{i};
+            } else {
+                final var extended = new int[old.length + 1];
+                System.arraycopy(old, 0, extended, 0, old.length);
+                extended[old.length] = i;
+                byFirstByte[first] = extended;
+            }
+        }
+    }
+
+    /**
+     * Decide if the source contains any of the markers.
+     *
+     * @param source  the source to check
+     * @param markers the markers, any of them has to be in the source.
+     *                When this parameter is {@code null} the source is
+     *                a candidate unconditionally.
+     * @return {@code true} if the source contains any of the markers or
+     * it cannot be scanned
+     */
+    boolean isCandidate(Source source, Set<String> markers) {
+        if (markers == null) {
+            return true;
+        }
+        final var bits = found.computeIfAbsent(source, this::scan);
+        for (final var marker : markers) {
+            final var index = markerIndex.get(marker);
+            if (index != null && bits.get(index)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Scan the file of the source for all the markers.
+     *
+     * @param source the source to scan
+     * @return the bits of the markers that were found. If the file
+     * cannot be read then all bits are set, so that the generators get
+     * the source and the reading error is reported the usual way.
+     */
+    private BitSet scan(Source source) {
+        final var bits = new BitSet(markers.size());
+        final byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(Paths.get(source.absoluteFile));
+        } catch (IOException e) {
+            bits.set(0, markers.size());
+            return bits;
+        }
+        var remaining = markers.size();
+        for (int i = 0; i < bytes.length && remaining > 0; i++) {
+            final var candidates = byFirstByte[bytes[i] & 0xFF];
+            if (candidates != null) {
+                for (final var m : candidates) {
+                    if (!bits.get(m) && matchesAt(bytes, i, markers.get(m))) {
+                        bits.set(m);
+                        remaining--;
+                    }
+                }
+            }
+        }
+        return bits;
+    }
+
+    private static boolean matchesAt(byte[] bytes, int start, byte[] marker) {
+        if (start + marker.length > bytes.length) {
+            return false;
+        }
+        for (int j = 1; j < marker.length; j++) {
+            if (bytes[start + j] != marker[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -7,19 +7,31 @@ import javax0.geci.api.Logger;
 import javax0.geci.api.SegmentSplitHelper;
 import javax0.geci.tools.Tracer;
 import javax0.geci.util.DirectoryLocated;
-import javax0.geci.util.JavaSegmentSplitHelper;
 import javax0.geci.util.NullSegmentSplitHelper;
+import javax0.geci.util.ScanningJavaSegmentSplitHelper;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -27,14 +39,16 @@ import java.util.stream.Collectors;
 class FileCollector {
     private static final Logger log = new javax0.geci.log.Logger(FileCollector.class);
     private final static SegmentSplitHelper nullSegmentSplitHelper = new NullSegmentSplitHelper();
-    private static final SegmentSplitHelper javaSegmentSplitHelper = new JavaSegmentSplitHelper();
-    private static final int MAX_DEPTH_UNLIMITED = Integer.MAX_VALUE;
+    private static final SegmentSplitHelper javaSegmentSplitHelper = new ScanningJavaSegmentSplitHelper();
     private final Map<Source.Set, DirectoryLocator> directories;
     private final Map<Source.Set, DirectoryLocated> located = new HashMap<>();
     private final Set<Source> newSources = new HashSet<>();
     private final Set<Source> sources = new HashSet<>();
     private final Map<String, SegmentSplitHelper> splitHelpers = new HashMap<>();
     private boolean lenient = false;
+    private boolean parallel = false;
+    private PathFilter filter = new PathFilter(null, null);
+    WarmCache warmCache = null;
 
     public FileCollector(Map<Source.Set, javax0.geci.api.DirectoryLocator> directories) {
         this.directories = new HashMap<>(directories);
@@ -136,6 +150,21 @@ class FileCollector {
         return located.get(sourceSet).getDirectory();
     }
 
+    /**
+     * @return the directories that were used to collect the files
+     */
+    Set<String> getLocatedDirectories() {
+        return located.values().stream().map(DirectoryLocated::getDirectory).collect(Collectors.toSet());
+    }
+
+    /**
+     * @return a predicate that is {@code true} for the directories that
+     * the last collection skipped as a whole
+     */
+    Predicate<Path> getIgnoredDirectories() {
+        return filter::ignoresAllUnder;
+    }
+
     public Set<Source> getNewSources() {
         return newSources;
     }
@@ -173,6 +202,26 @@ class FileCollector {
         lenient = true;
     }
 
+    /**
+     * Walk the directories parallel when collecting the files. The
+     * sibling directories are walked in separate fork join tasks. When
+     * the tracing is switched on the collection is sequential even if
+     * this method was called, because the tracer is not thread safe.
+     */
+    public void parallel() {
+        parallel = true;
+    }
+
+    /**
+     * Use the cache to get the list of the files in the directories and
+     * the content of the sources.
+     *
+     * @param warmCache the cache shared by the code generation runs
+     */
+    void warmCache(WarmCache warmCache) {
+        this.warmCache = warmCache;
+    }
+
     /**
      * Get the segment split helper that is to be used for this source.
      *
@@ -224,6 +273,7 @@ class FileCollector {
     public void collect(Set<Predicate<Path>> onlys, Set<Predicate<Path>> ignores, Set<Source.Set> outputSets) {
         Tracer.log("Current Working Directory is '" + getCwd() + "'");
         var processedSome = new AtomicBoolean(false);
+        filter = new PathFilter(onlys, ignores);
         for (var entry : directories.entrySet()) {
             Tracer.push("Entry","File collecting started for entry [" + entry.getValue().alternatives().collect(Collectors.joining(",")) + "]");
             var processed = new AtomicBoolean(false);
@@ -236,53 +286,7 @@ class FileCollector {
                             Tracer.log("'" + directory + "' seems to be the right alternative");
                             if (!outputSets.contains(entry.getKey())) {
                                 Tracer.log("'" + directory + "' is input, collecting files...");
-                                Files.find(Paths.get(dir), MAX_DEPTH_UNLIMITED,
-                                        (filePath, fileAttr) -> fileAttr.isRegularFile())
-                                    .peek(s -> Tracer.push("File", "'" + s + "' was found"))
-                                        .peek(s -> Tracer.push("Only","Checking predicates"))
-                                        .filter(path -> {
-                                            if (onlys == null || onlys.isEmpty()) {
-                                                Tracer.log("There are no 'only' predicates");
-                                                return true;
-                                            }
-                                            if (onlys.stream()
-                                                    .peek(p -> Tracer.log("Checking 'only' predicate " + p))
-                                                    .anyMatch(predicate -> predicate.test(path))) {
-                                                Tracer.append(", predicate matched");
-                                                return true;
-                                            }
-                                            Tracer.log("No 'only' predicate match, file is skipped.");
-                                            Tracer.pop();
-                                            Tracer.pop();
-                                            return false;
-                                        })
-                                        .peek(s -> Tracer.pop())
-                                        .peek(s -> Tracer.push("Ignore","Checking predicates"))
-                                        .filter(path -> {
-                                                    if (ignores == null || ignores.isEmpty()) {
-                                                        Tracer.log("There are no 'ignore' predicates");
-                                                        return true;
-                                                    }
-                                                    if (ignores.stream()
-                                                            .peek(p -> Tracer.log("Checking 'ignore' predicate " + p))
-                                                            .noneMatch(negicate -> negicate.test(path))) {
-                                                        Tracer.log("None of the  predicates matched");
-                                                        return true;
-                                                    }
-                                                    Tracer.append(", predicate matched, file is skipped");
-                                                    Tracer.pop();
-                                            Tracer.pop();
-                                                    return false;
-                                                }
-                                        )
-                                    .peek(s -> {
-                                        Tracer.pop();
-                                        Tracer.pop();
-                                    })
-                                        .forEach(path -> sources.add(
-                                                new Source(this,
-                                                        dir,
-                                                        path)));
+                                walk(entry.getKey(), dir, filter);
                                 processed.set(true);
                                 processedSome.set(true);
                                 located.put(entry.getKey(), new DirectoryLocated(dir));
@@ -319,6 +323,220 @@ class FileCollector {
         }
     }
 
+    /**
+     * Collect the files from the directory {@code dir} that pass the
+     * {@code filter}. Directories that are ignored as a whole by the
+     * filter are not walked. When the warm cache is used the listing of
+     * the directory comes from the cache, but the listing is created by
+     * the same walk skipping the ignored directories.
+     *
+     * @param set    the source set the collected sources belong to
+     * @param dir    the normalized directory name with trailing {@code /}
+     * @param filter the filter to decide which files and directories
+     *               are needed
+     * @throws IOException when the directory cannot be walked
+     */
+    private void walk(Source.Set set, String dir, PathFilter filter) throws IOException {
+        final var root = Paths.get(dir);
+        if (filter.ignoresAllUnder(root)) {
+            Tracer.log("'" + dir + "' is ignored as a whole");
+            return;
+        }
+        if (warmCache != null) {
+            final var files = warmCache.files(set, root, filter.directoryKey(),
+                directories -> listFiles(root, filter, file -> true, directories));
+            for (final var file : files) {
+                if (filter.test(file)) {
+                    sources.add(newSource(set, dir, file));
+                }
+            }
+        } else {
+            for (final var file : listFiles(root, filter, filter::test, null)) {
+                sources.add(newSource(set, dir, file));
+            }
+        }
+    }
+
+    /**
+     * List the regular files under the directory skipping the
+     * directories that are ignored as a whole by the filter.
+     *
+     * @param root        the directory to walk
+     * @param filter      the filter that decides which directories are
+     *                    skipped
+     * @param fileFilter  the files that are included into the result
+     * @param directories when not {@code null} the walked directories
+     *                    and their modification times are put into it.
+     *                    It has to be thread safe when the walk is
+     *                    parallel.
+     * @return the files found
+     * @throws IOException when the directory cannot be walked
+     */
+    private List<Path> listFiles(Path root, PathFilter filter, Predicate<Path> fileFilter, Map<Path, FileTime> directories) throws IOException {
+        if (parallel && !Tracer.isOn()) {
+            final var files = new ConcurrentLinkedQueue<Path>();
+            try {
+                ForkJoinPool.commonPool().invoke(new DirectoryWalk(root, filter, fileFilter, files, directories));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return new ArrayList<>(files);
+        }
+        final var files = new ArrayList<Path>();
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attrs) {
+                if (!directory.equals(root) && filter.ignoresAllUnder(directory)) {
+                    Tracer.log("Directory '" + directory + "' is ignored, skipping subtree");
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                if (directories != null) {
+                    directories.put(directory, attrs.lastModifiedTime());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile()) {
+                    try (final var pos = Tracer.push("File", "'" + file + "' was found")) {
+                        if (fileFilter.test(file)) {
+                            files.add(file);
+                        }
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return files;
+    }
+
+    private Source newSource(Source.Set set, String dir, Path file) {
+        final var source = new Source(this, dir, file);
+        source.sourceSet = set;
+        return source;
+    }
+
+    /**
+     * Fork join task walking one directory. The files in the directory
+     * are collected and the subdirectories are walked by new tasks.
+     */
+    private static class DirectoryWalk extends RecursiveAction {
+        private final Path directory;
+        private final PathFilter filter;
+        private final Predicate<Path> fileFilter;
+        private final Collection<Path> files;
+        private final Map<Path, FileTime> directories;
+
+        private DirectoryWalk(Path directory, PathFilter filter, Predicate<Path> fileFilter, Collection<Path> files, Map<Path, FileTime> directories) {
+            this.directory = directory;
+            this.filter = filter;
+            this.fileFilter = fileFilter;
+            this.files = files;
+            this.directories = directories;
+        }
+
+        @Override
+        protected void compute() {
+            final var subWalks = new ArrayList<DirectoryWalk>();
+            try {
+                if (directories != null) {
+                    directories.put(directory, Files.getLastModifiedTime(directory));
+                }
+                Files.walkFileTree(directory, EnumSet.noneOf(FileVisitOption.class), 1, new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                        if (attrs.isDirectory()) {
+                            if (!filter.ignoresAllUnder(file)) {
+                                subWalks.add(new DirectoryWalk(file, filter, fileFilter, files, directories));
+                            }
+                        } else if (attrs.isRegularFile() && fileFilter.test(file)) {
+                            files.add(file);
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            invokeAll(subWalks);
+        }
+    }
+
+    /**
+     * The 'only' and 'ignore' predicates used during the file
+     * collection. The absolute file name is calculated only once for
+     * each file and the regular expression based predicates test this
+     * string directly. The regular expression based ignore predicates
+     * are also used to skip whole directories, when they match any file
+     * in the directory.
+     */
+    private static class PathFilter {
+        private final List<Predicate<Path>> onlys;
+        private final List<Predicate<Path>> ignores;
+        private final List<Geci.PatternPredicate> directoryIgnores;
+
+        private PathFilter(Set<Predicate<Path>> onlys, Set<Predicate<Path>> ignores) {
+            this.onlys = onlys == null ? List.of() : List.copyOf(onlys);
+            this.ignores = ignores == null ? List.of() : List.copyOf(ignores);
+            this.directoryIgnores = this.ignores.stream()
+                .filter(p -> p instanceof Geci.PatternPredicate)
+                .map(p -> (Geci.PatternPredicate) p)
+                .collect(Collectors.toList());
+        }
+
+        /**
+         * @return a string that identifies the directories this filter
+         * skips. Listings created with filters that have the same key
+         * are the same.
+         */
+        private String directoryKey() {
+            return directoryIgnores.stream().map(Geci.PatternPredicate::regex).sorted().collect(Collectors.joining("\n"));
+        }
+
+        /**
+         * @param directory the directory to check
+         * @return {@code true} if all files in the directory would be
+         * ignored
+         */
+        private boolean ignoresAllUnder(Path directory) {
+            if (directoryIgnores.isEmpty()) {
+                return false;
+            }
+            final var absoluteDirectory = normalized(toAbsolute(directory));
+            for (final var ignore : directoryIgnores) {
+                if (ignore.matchesAllUnder(absoluteDirectory)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * @param path the file to check
+         * @return {@code true} if the file has to be collected
+         */
+        private boolean test(Path path) {
+            final var absoluteFile = onlys.isEmpty() && ignores.isEmpty() ? null : toAbsolute(path);
+            if (!onlys.isEmpty() && onlys.stream().noneMatch(only -> test(only, path, absoluteFile))) {
+                Tracer.log("No 'only' predicate match, file is skipped.");
+                return false;
+            }
+            if (ignores.stream().anyMatch(ignore -> test(ignore, path, absoluteFile))) {
+                Tracer.log("'ignore' predicate matched, file is skipped");
+                return false;
+            }
+            return true;
+        }
+
+        private static boolean test(Predicate<Path> predicate, Path path, String absoluteFile) {
+            if (predicate instanceof Geci.PatternPredicate) {
+                return ((Geci.PatternPredicate) predicate).test(absoluteFile);
+            }
+            return predicate.test(path);
+        }
+    }
+
     /**
      * Add a new source to the set of the new sources. The new sources.
      * The collection of the new sources contains those sources that are
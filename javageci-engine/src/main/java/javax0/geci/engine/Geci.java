@@ -1,5 +1,6 @@
 package javax0.geci.engine;
 
+import javax0.geci.api.BatchGenerator;
 import javax0.geci.api.Context;
 import javax0.geci.api.Distant;
 import javax0.geci.api.GeciException;
@@ -12,6 +13,8 @@ import javax0.geci.javacomparator.Comparator;
 import javax0.geci.log.Logger;
 import javax0.geci.log.LoggerFactory;
 import javax0.geci.tools.AbstractJavaGenerator;
+import javax0.geci.tools.Template;
+import javax0.geci.tools.TemplateLoader;
 import javax0.geci.tools.Tracer;
 import javax0.geci.util.DirectoryLocator;
 
@@ -19,12 +22,16 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.BiPredicate;
 import java.util.function.IntFunction;
 import java.util.function.Predicate;
@@ -50,6 +57,8 @@ public class Geci implements javax0.geci.api.Geci {
     private final Map<Source.Set, javax0.geci.api.DirectoryLocator> directories = new HashMap<>();
     private final List<Generator> generators = new ArrayList<>();
     private final Set<Source> modifiedSources = new HashSet<>();
+    private final Map<Source, List<String>> changedSegments = new HashMap<>();
+    private int verifyLimit = 0;
     private final Map<String, SegmentSplitHelper> splitHelpers = new HashMap<>();
     private final Set<Predicate<Path>> onlys = new HashSet<>();
     private final Set<Predicate<Path>> ignores = new HashSet<>();
@@ -61,6 +70,13 @@ public class Geci implements javax0.geci.api.Geci {
     private final Set<Source.Set> outputSet = new HashSet<>();
     private Source.Set lastSet = null;
     private boolean ignoreBinary = false;
+    private boolean parallelCollect = false;
+    private boolean prefilter = false;
+    private boolean warmCache = false;
+    private Set<String> changedFiles = null;
+    private Set<String> collectedDirectories = Set.of();
+    private Predicate<Path> ignoredDirectories = directory -> false;
+    private Set<String> collectedFiles = Set.of();
     private String traceFileName = null;
     private int phaseCounter = 0;
 
@@ -156,12 +172,68 @@ public class Geci implements javax0.geci.api.Geci {
             modifiedSources.size() > 1 ? "s" : "",
             modifiedSources.size() > 1 ? "were" : "was")).append('\n');
         for (final var source : modifiedSources) {
-            sb.append(source.getAbsoluteFile()).append('\n');
+            sb.append(source.getAbsoluteFile());
+            final var segments = changedSegments.get(source);
+            if (segments != null && !segments.isEmpty()) {
+                sb.append(" segment").append(segments.size() > 1 ? "s " : " ").append(String.join(", ", segments));
+            }
+            sb.append('\n');
         }
         sb.append('\n');
         return sb.toString();
     }
 
+    /**
+     * Run the generators like {@link #generate()} does but do not write
+     * anything to the disk. The sources are checked one by one and the
+     * checking stops at the first source that would be modified. This
+     * can be used on the CI server, where the code generation should
+     * not change anything.
+     *
+     * @return {@code true} if there is a source that would be modified
+     * by the code generation. In this case {@link #failed()} returns the
+     * name of the source and the identifiers of the segments that
+     * would be changed.
+     * @throws IOException if some of the sources cannot be read
+     */
+    public boolean verify() throws IOException {
+        return verify(1);
+    }
+
+    /**
+     * Same as {@link #verify()} but the checking stops only after
+     * {@code limit} sources were found that would be modified.
+     *
+     * <p>The sources are collected and the generators run the same way
+     * as in {@link #generate()}. After each phase the segments written
+     * so far are compared to their original content. When there are at
+     * least {@code limit} sources that would be modified, the remaining
+     * phases and the global generators are skipped. The phase in which
+     * the limit is reached is always executed for all the sources and
+     * all the generators active in that phase. If the limit is not
+     * reached, all the phases and the global generators run.
+     *
+     * <p>The result of a previous verification is discarded, thus
+     * {@link #failed()} reports only the sources found by the last call.
+     *
+     * @param limit the maximal number of the modified sources to report
+     * @return {@code true} if there is a source that would be modified
+     * @throws IOException if some of the sources cannot be read
+     */
+    public boolean verify(int limit) throws IOException {
+        if (limit < 1) {
+            throw new IllegalArgumentException("The verification limit has to be positive, it is " + limit);
+        }
+        modifiedSources.clear();
+        changedSegments.clear();
+        verifyLimit = limit;
+        try {
+            return generate();
+        } finally {
+            verifyLimit = 0;
+        }
+    }
+
     @Override
     public Geci source(Source.Set set, String... directory) {
         return source(set, exists(), directory);
@@ -240,6 +312,123 @@ public class Geci implements javax0.geci.api.Geci {
         return this;
     }
 
+    /**
+     * Collect the source files walking the directories parallel. Large
+     * source trees are collected faster this way. The collection falls
+     * back to sequential walking when the tracing is switched on,
+     * because the tracer is not thread safe.
+     *
+     * @return {@code this}
+     */
+    public Geci parallelCollect() {
+        parallelCollect = true;
+        return this;
+    }
+
+    /**
+     * Hand over only those sources to the generators that contain at
+     * least one of the markers that signal code generation, like
+     * {@code @Geci}, {@code editor-fold}, {@code /*!jamal} or {@code
+     * snippet}. Generators that declare their own markers or mnemonics
+     * implementing {@link Generator#markers()} or {@link
+     * Generator#mnemonics()} get the sources that contain any of them,
+     * whether this method was called or not.
+     *
+     * <p>Use this method only when all the sources that need code
+     * generation contain any of these strings. For example a class
+     * annotated with an annotation that is annotated as {@code Geci}
+     * and configured only in the annotation does not.
+     *
+     * @return {@code this}
+     */
+    public Geci prefilter() {
+        prefilter = true;
+        return this;
+    }
+
+    /**
+     * Use the JVM-wide cache of the engine. The cache keeps the list of
+     * the files in the source directories, the lines of the source
+     * files and the templates between the code generation runs. The
+     * cached information is validated using the modification time and
+     * the size of the files and directories, therefore a run that uses
+     * the cache reads only what has changed since the previous run that
+     * also used the cache.
+     *
+     * <p>This is useful when many code generation runs are executed in
+     * the same JVM, like the unit tests executed by surefire.
+     *
+     * @return {@code this}
+     */
+    public Geci warmCache() {
+        warmCache = true;
+        return this;
+    }
+
+    /**
+     * Restrict the processing to the files that changed since the
+     * previous run. All the sources are still collected, but only the
+     * changed ones are passed to the generators. When a changed source
+     * is passed to a {@link Distant} or to a {@link BatchGenerator}
+     * then all the sources are processed, because these generators
+     * collect information from the sources that the other generators
+     * may use writing other files.
+     *
+     * <p>It is not an error in such a run if the generators do not
+     * touch any source, the changed files may not need any generated
+     * code.
+     *
+     * @param files the absolute names of the changed files
+     * @return {@code this}
+     */
+    Geci changed(Set<String> files) {
+        changedFiles = files;
+        return this;
+    }
+
+    /**
+     * @return the directories the last run collected the sources from
+     */
+    Set<String> collectedDirectories() {
+        return collectedDirectories;
+    }
+
+    /**
+     * @return a predicate that is {@code true} for the directories the
+     * last run did not collect any source from, because all the files
+     * in them are ignored
+     */
+    Predicate<Path> ignoredDirectories() {
+        return ignoredDirectories;
+    }
+
+    /**
+     * @return the absolute names of the files the last run collected
+     */
+    Set<String> collectedFiles() {
+        return collectedFiles;
+    }
+
+    /**
+     * @return the absolute names of the files the last run modified
+     * mapped to the hash of the content that was written into them
+     */
+    Map<String, Integer> modifiedFileHashes() {
+        return modifiedSources.stream()
+            .map(source -> (javax0.geci.engine.Source) source)
+            .collect(Collectors.toMap(Source::getAbsoluteFile, javax0.geci.engine.Source::contentHash));
+    }
+
+    /**
+     * Empty the JVM-wide cache used by the runs that called {@link
+     * #warmCache()}.
+     */
+    public static void clearWarmCache() {
+        WarmCache.INSTANCE.clear();
+        Template.clearCache();
+        TemplateLoader.clearCache();
+    }
+
     public Geci ignore(String... patterns) {
         Collections.addAll(this.ignores,
             Arrays.stream(patterns)
@@ -253,20 +442,52 @@ public class Geci implements javax0.geci.api.Geci {
      * a predicate and the same time the {@code toString()} of the
      * object returns the regular expression itself to aid debugging.
      */
-    private static class PatternPredicate implements Predicate<Path> {
-        private final Predicate<Path> predicate;
+    static class PatternPredicate implements Predicate<Path> {
         private final String regex;
         private final Pattern pattern;
 
-        private PatternPredicate(String regex) {
+        PatternPredicate(String regex) {
             this.pattern = Pattern.compile(regex);
-            this.predicate = s -> pattern.matcher(FileCollector.toAbsolute(s)).find();
             this.regex = regex;
         }
 
         @Override
         public boolean test(Path path) {
-            return predicate.test(path);
+            return test(FileCollector.toAbsolute(path));
+        }
+
+        /**
+         * Test the already absolute and normalized file name. The file
+         * collector calculates the absolute name only once for each
+         * file and not for each predicate.
+         *
+         * @param absoluteFile the absolute, normalized file name
+         * @return {@code true} if the pattern is found in the name
+         */
+        boolean test(String absoluteFile) {
+            return pattern.matcher(absoluteFile).find();
+        }
+
+        /**
+         * Decide if the pattern matches all the files that are under
+         * the directory. This is the case when the pattern matches the
+         * name of the directory followed by a {@code /} character, and
+         * the match does not depend on the end of the string. The
+         * latter means that any file name starting with the directory
+         * name will also match.
+         *
+         * @param absoluteDirectory the absolute, normalized directory
+         *                          name with a trailing {@code /}
+         * @return {@code true} if all files in the directory match the
+         * pattern, {@code false} if there may be some that do not
+         */
+        boolean matchesAllUnder(String absoluteDirectory) {
+            final var matcher = pattern.matcher(absoluteDirectory);
+            return matcher.find() && !matcher.requireEnd();
+        }
+
+        String regex() {
+            return regex;
         }
 
         @Override
@@ -346,10 +567,8 @@ public class Geci implements javax0.geci.api.Geci {
         try {
             final var exceptions = new ArrayList<String>();
             injectContextIntoGenerators();
-            final var phases = generators.stream()
-                .mapToInt(Generator::phases)
-                .max()
-                .orElse(1);
+            final var schedule = new PhaseSchedule(generators);
+            final var phases = schedule.phases();
             Tracer.log("There will be " + phases + " phases.");
             final FileCollector collector;
             if (directories.isEmpty()) {
@@ -364,22 +583,49 @@ public class Geci implements javax0.geci.api.Geci {
                     collector.lenient();
                 }
             }
+            if (parallelCollect) {
+                collector.parallel();
+            }
+            if (warmCache) {
+                collector.warmCache(WarmCache.INSTANCE);
+            }
             Tracer.push("Registering split helpers");
             collector.registerSplitHelpers(splitHelpers);
             Tracer.pop();
             Tracer.push("SourceCollect", "Collecting sources");
             collector.collect(onlys, ignores, outputSet);
+            collectedDirectories = collector.getLocatedDirectories();
+            ignoredDirectories = collector.getIgnoredDirectories();
+            collectedFiles = collector.getSources().stream().map(Source::getAbsoluteFile).collect(Collectors.toSet());
             Tracer.pop();
+            final var generatorIndex = new GeneratorIndex(generators, prefilter);
+            final var processed = processedSources(collector, generatorIndex);
 
+            var limitReached = false;
             for (int phase = 0; phase < phases; phase++) {
+                if (phase > 0) {
+                    limitReached = verifyLimitReached(collector);
+                    if (limitReached) {
+                        break;
+                    }
+                }
                 try (final var posPhase = Tracer.push("Phase", "Starting phase " + phase)) {
-                    for (final var source : collector.getSources()) {
+                    final var active = schedule.activeIn(phase);
+                    if (active.stream().allMatch(g -> g instanceof BatchGenerator)) {
+                        Tracer.log("There is no active source by source generator in this phase");
+                        processBatches(active, processed, generatorIndex, exceptions);
+                        continue;
+                    }
+                    for (final var source : processed) {
                         try (final var posSource = Tracer.push("Source", source.getAbsoluteFile())) {
                             if (!source.isBinary) {
                                 try (final var posGenerators = Tracer.push("Generators", null)) {
-                                    for (var generator : generators) {
+                                    for (var generator : generatorIndex.generatorsFor(source)) {
+                                        if (generator instanceof BatchGenerator) {
+                                            continue;
+                                        }
                                         try (final var posGenerator = Tracer.push("Generator." + generator.getClass().getSimpleName(), generator.getClass().getName())) {
-                                            if (generator.activeIn(phase)) {
+                                            if (active.contains(generator)) {
                                                 Tracer.log("ACTIVE");
                                                 source.allowDefaultSegment = false;
                                                 source.currentGenerator = generator;
@@ -400,16 +646,11 @@ public class Geci implements javax0.geci.api.Geci {
                             }
                         }
                     }
+                    processBatches(active, processed, generatorIndex, exceptions);
                 }
             }
-            try (final var pos1 = Tracer.push("GlobalGenerators", null)) {
-                for (var generator : generators) {
-                    if (generator instanceof GlobalGenerator) {
-                        try (final var pos2 = Tracer.push("GlobalGenerator." + generator.getClass().getSimpleName(), generator.getClass().getName())) {
-                            ((GlobalGenerator) generator).process();
-                        }
-                    }
-                }
+            if (!limitReached && !verifyLimitReached(collector)) {
+                runGlobalGenerators();
             }
             if (exceptions.size() > 0 && !ignoreBinary) {
                 try (final var pos = Tracer.push("Exceptions")) {
@@ -417,20 +658,146 @@ public class Geci implements javax0.geci.api.Geci {
                 }
                 throw new GeciException("Cannot read the files\n" + String.join("\n", exceptions) + "\nThey are probably binary file. Use '.ignore()' to filter binary files out");
             }
+            if (verifyLimit > 0) {
+                return sourcesVerify(collector);
+            }
             if (!sourcesConsolidate(collector)) {
-                if (generators.stream().anyMatch(g -> !(g instanceof Distant))) {
-                    throw new GeciException("The generators did not touch any source");
-                }
+                assertSomethingTouched();
             }
             return sourcesModifiedAndSave(collector);
         } finally {
+            if (!warmCache) {
+                Template.clearCache();
+                TemplateLoader.runFinished();
+            }
             if (traceFileName != null) {
                 try {
                     Tracer.dumpXML(traceFileName);
                 } catch (IOException e) {
                     LoggerFactory.getLogger().error("Trace cannot be written into '" + traceFileName + "'", e);
+                } finally {
+                    Tracer.off();
+                }
+            }
+        }
+    }
+
+    /**
+     * Invoke the batch generators that are active in the phase. Each
+     * generator gets the list of all the sources it is interested in.
+     * The sources are collected into a set, so the batch is sorted by
+     * the absolute file names to give the generators a deterministic
+     * order. If a source turns out to be binary during the processing
+     * then the batch is continued with the sources following the binary
+     * one.
+     *
+     * @param active         the generators active in the current phase
+     * @param sources        the sources to process
+     * @param generatorIndex to select the sources for the generators
+     * @param exceptions     the list of the binary files, new binary
+     *                       files are appended to it
+     */
+    private void processBatches(List<Generator> active, Collection<javax0.geci.engine.Source> sources, GeneratorIndex generatorIndex, List<String> exceptions) {
+        for (final var generator : active) {
+            if (generator instanceof BatchGenerator) {
+                try (final var pos = Tracer.push("BatchGenerator." + generator.getClass().getSimpleName(), generator.getClass().getName())) {
+                    List<javax0.geci.engine.Source> batch = sources.stream()
+                        .filter(source -> !source.isBinary && generatorIndex.generatorsFor(source).contains(generator))
+                        .sorted(java.util.Comparator.comparing(javax0.geci.engine.Source::getAbsoluteFile))
+                        .collect(Collectors.toList());
+                    for (final var source : batch) {
+                        source.allowDefaultSegment = false;
+                        source.currentGenerator = generator;
+                    }
+                    while (!batch.isEmpty()) {
+                        try {
+                            ((BatchGenerator) generator).processAll(Collections.unmodifiableList(batch));
+                            batch = List.of();
+                        } catch (javax0.geci.engine.Source.SourceIsBinary e) {
+                            Tracer.log("source processing failed, it is a binary file");
+                            exceptions.add(e.getAbsoluteFile());
+                            batch = batch.subList(indexOf(batch, e.getAbsoluteFile()) + 1, batch.size());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Select the sources the generators process. These are all the
+     * collected sources unless the run was restricted to the changed
+     * files calling {@link #changed(Set)}.
+     *
+     * @param collector      that provides the sources
+     * @param generatorIndex to find the generators of the changed sources
+     * @return the sources to process
+     */
+    private Collection<javax0.geci.engine.Source> processedSources(FileCollector collector, GeneratorIndex generatorIndex) {
+        if (changedFiles == null) {
+            return collector.getSources();
+        }
+        final var changed = collector.getSources().stream()
+            .filter(source -> changedFiles.contains(source.getAbsoluteFile()))
+            .collect(Collectors.toList());
+        for (final var source : changed) {
+            for (final var generator : generatorIndex.generatorsFor(source)) {
+                if (generator instanceof Distant || generator instanceof BatchGenerator) {
+                    Tracer.log("'" + source.getAbsoluteFile() + "' is collected from, all sources are processed");
+                    return collector.getSources();
+                }
+            }
+        }
+        return changed;
+    }
+
+    private static int indexOf(List<javax0.geci.engine.Source> sources, String absoluteFile) {
+        for (int i = 0; i < sources.size(); i++) {
+            if (sources.get(i).getAbsoluteFile().equals(absoluteFile)) {
+                return i;
+            }
+        }
+        return sources.size();
+    }
+
+    // the maximal number of threads writing the modified sources
+    private static final int SAVE_THREADS = 4;
+
+    /**
+     * Save the sources. When there are more than one source they are
+     * written parallel on a small thread pool.
+     *
+     * @param sources the sources to save
+     * @throws IOException if any of the files cannot be written
+     */
+    private static void saveAll(List<javax0.geci.engine.Source> sources) throws IOException {
+        if (sources.size() <= 1) {
+            for (final var source : sources) {
+                source.save();
+            }
+            return;
+        }
+        final var pool = Executors.newFixedThreadPool(Math.min(SAVE_THREADS, sources.size()));
+        try {
+            final var futures = new ArrayList<Future<Boolean>>(sources.size());
+            for (final var source : sources) {
+                futures.add(pool.submit(source::save));
+            }
+            for (final var future : futures) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Saving the sources was interrupted", e);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException) {
+                        throw (IOException) e.getCause();
+                    }
+                    throw new GeciException("Saving the sources failed", e.getCause());
                 }
             }
+        } finally {
+            pool.shutdown();
         }
     }
 
@@ -449,16 +816,18 @@ public class Geci implements javax0.geci.api.Geci {
                 collector.getSources().stream(),
                 collector.getNewSources().stream()
             ).collect(Collectors.toSet());
+            final var toSave = new ArrayList<javax0.geci.engine.Source>();
             for (var source : allSources) {
                 if (source.isTouched() && source.isModified(getSourceComparator(source))) {
                     Tracer.log("SaveSource", source.getAbsoluteFile());
-                    source.save();
+                    toSave.add(source);
                     modifiedSources.add(source);
                     generated = true;
                 } else {
                     Tracer.log("SourceUnchanged", source.getAbsoluteFile());
                 }
             }
+            saveAll(toSave);
             for (var source : Stream.concat(collector.getSources().stream(), collector.getNewSources().stream()).collect(Collectors.toSet())) {
                 if (modifiedSources.contains(source)) {
                     if ((whatToLog & ~MODIFIED) == 0) {
@@ -511,6 +880,94 @@ public class Geci implements javax0.geci.api.Geci {
         }
     }
 
+    private void assertSomethingTouched() {
+        if (changedFiles == null && generators.stream().anyMatch(g -> !(g instanceof Distant))) {
+            throw new GeciException("The generators did not touch any source");
+        }
+    }
+
+    /**
+     * Consolidate and compare the sources one by one in the order of
+     * their file names until {@code verifyLimit} modified sources are
+     * found. Nothing is written to the disk.
+     *
+     * @param collector that provides the sources
+     * @return {@code true} if there is any source that would be modified
+     */
+    private boolean sourcesVerify(FileCollector collector) {
+        try (final var pos = Tracer.push("Verify", null)) {
+            final var allSources = Stream.concat(
+                collector.getSources().stream(),
+                collector.getNewSources().stream()
+            ).distinct()
+                .sorted(java.util.Comparator.comparing(javax0.geci.engine.Source::getAbsoluteFile))
+                .collect(Collectors.toList());
+            var touched = false;
+            for (final var source : allSources) {
+                final var segments = source.changedSegments();
+                source.consolidate();
+                if (source.isTouched()) {
+                    touched = true;
+                    if (source.isModified(getSourceComparator(source))) {
+                        Tracer.log("OutOfDate", source.getAbsoluteFile());
+                        modifiedSources.add(source);
+                        changedSegments.put(source, segments);
+                        if ((whatToLog & ~MODIFIED) == 0) {
+                            LOG.info("OUT OF DATE '%s'", source.getAbsoluteFile());
+                        }
+                        if (modifiedSources.size() >= verifyLimit) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            if (!touched) {
+                assertSomethingTouched();
+            }
+            return !modifiedSources.isEmpty();
+        }
+    }
+
+    private void runGlobalGenerators() {
+        try (final var pos1 = Tracer.push("GlobalGenerators", null)) {
+            for (var generator : generators) {
+                if (generator instanceof GlobalGenerator) {
+                    try (final var pos2 = Tracer.push("GlobalGenerator." + generator.getClass().getSimpleName(), generator.getClass().getName())) {
+                        ((GlobalGenerator) generator).process();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * During verification check if there are already {@link #verifyLimit}
+     * sources that would be modified. The sources are not consolidated,
+     * only the segments written so far are compared to their original
+     * content.
+     *
+     * @param collector the collector holding the sources
+     * @return {@code true} if the verification is running and the rest
+     * of the generators need not run to know the result
+     */
+    private boolean verifyLimitReached(FileCollector collector) {
+        if (verifyLimit == 0) {
+            return false;
+        }
+        final var outOfDate = Stream.concat(
+            collector.getSources().stream(),
+            collector.getNewSources().stream()
+        ).distinct()
+            .filter(source -> source.hasModifiedSegment(getSourceComparator(source)))
+            .limit(verifyLimit)
+            .count();
+        if (outOfDate >= verifyLimit) {
+            Tracer.log("Verify", outOfDate + " source(s) are out of date, the remaining generators are skipped");
+            return true;
+        }
+        return false;
+    }
+
     private boolean sourcesConsolidate(FileCollector collector) {
         try (final var pos1 = Tracer.push("SourceConsolidation", null)) {
             var touched = false;
@@ -0,0 +1,298 @@
+package javax0.geci.engine;
+
+import javax0.geci.log.Logger;
+import javax0.geci.log.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Long running code generation that watches the source directories
+ * and runs the generators again whenever a source file changes.
+ *
+ * <p>The daemon gets a supplier that creates a fully configured {@link
+ * Geci} object, the same way as it is configured in a unit test. A
+ * {@link Geci} object can execute only one code generation, therefore
+ * the supplier is invoked for each run. The first run processes all the
+ * sources and it also finds the directories to watch. Later runs
+ * collect all the sources, but they pass to the generators only the
+ * files that were changed since the previous run, unless the
+ * information collected from the changed files may be needed to
+ * generate other files. When a file or directory is deleted, all the
+ * sources are passed to the generators again. All the runs use the
+ * {@link Geci#warmCache()} so the unchanged files are not read again.
+ *
+ * <p>The directories that the code generation ignores as a whole are
+ * not watched.
+ *
+ * <p>It is not an error when a later run does not touch any source,
+ * the changed files may not need any generated code. Failing runs are
+ * logged and the daemon keeps watching the sources.
+ *
+ * <p>The changes that the code generation itself writes into the
+ * sources are not processed again. The generators that use reflection
+ * see the classes as they were compiled, the daemon does not compile
+ * the changed sources.
+ *
+ * <pre>{@code
+ * try (final var daemon = new GeciDaemon(() -> new Geci().register(...))) {
+ *     daemon.run();
+ * }
+ * }</pre>
+ */
+public class GeciDaemon implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger();
+
+    /**
+     * The time to wait for further changes after a change was detected.
+     * Editors and build tools usually touch several files at once,
+     * which are processed together this way.
+     */
+    private static final long SETTLE_MILLIS = 50;
+
+    /**
+     * The file modification times are set from a clock that may lag
+     * behind {@link System#currentTimeMillis()}. The files modified
+     * this much before the start of the first run are also checked
+     * after the first run.
+     */
+    private static final long START_MARGIN_MILLIS = 1000;
+
+    private final Supplier<Geci> factory;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> watched = new HashMap<>();
+    private final Map<String, Integer> written = new HashMap<>();
+    private Predicate<Path> ignoredDirectories = directory -> false;
+    private Set<String> sources = Set.of();
+    private volatile boolean closed = false;
+    private volatile int runs = 0;
+    private volatile int failures = 0;
+
+    /**
+     * @param factory creates a new, fully configured {@link Geci} object
+     *                for each code generation run
+     * @throws IOException if the file system watch service cannot be
+     *                     created
+     */
+    public GeciDaemon(Supplier<Geci> factory) throws IOException {
+        this.factory = factory;
+        this.watchService = FileSystems.getDefault().newWatchService();
+    }
+
+    /**
+     * Run the code generation for all the sources and then each time
+     * when some of the sources change. The method returns only when the
+     * daemon is closed calling {@link #close()} from another thread or
+     * when the thread is interrupted.
+     *
+     * @throws IOException if the directories cannot be watched
+     */
+    public void run() throws IOException {
+        final var start = FileTime.fromMillis(System.currentTimeMillis() - START_MARGIN_MILLIS);
+        final var geci = factory.get().warmCache();
+        generate(geci);
+        ignoredDirectories = geci.ignoredDirectories();
+        final var changedDuringStart = new HashSet<String>();
+        for (final var directory : geci.collectedDirectories()) {
+            registerAll(Paths.get(directory), changedDuringStart);
+        }
+        changedDuringStart.removeIf(file -> !isModifiedSince(file, start) || isOwnWrite(file));
+        if (!changedDuringStart.isEmpty()) {
+            generate(changedDuringStart);
+        }
+        try {
+            while (!closed) {
+                final var changed = new HashSet<String>();
+                final var deleted = new HashSet<String>();
+                collectChanges(watchService.take(), changed, deleted);
+                WatchKey key;
+                while ((key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    collectChanges(key, changed, deleted);
+                }
+                changed.removeIf(this::isOwnWrite);
+                if (!deleted.isEmpty()) {
+                    LOG.info("Deleted %s", String.join(", ", deleted));
+                    deleted.forEach(written::remove);
+                    generate(factory.get().warmCache());
+                } else if (!changed.isEmpty()) {
+                    generate(changed);
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // close() was called, this is the normal termination
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the number of the code generation runs that were executed
+     * so far
+     */
+    public int runs() {
+        return runs;
+    }
+
+    /**
+     * @return the number of the code generation runs that failed so far
+     */
+    public int failures() {
+        return failures;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        watchService.close();
+    }
+
+    private void generate(Set<String> changedFiles) {
+        final var geci = factory.get().warmCache().changed(changedFiles);
+        LOG.info("Changed %s", String.join(", ", changedFiles));
+        generate(geci);
+    }
+
+    private void generate(Geci geci) {
+        runs++;
+        try {
+            if (geci.generate()) {
+                LOG.info("%s", geci.failed());
+            }
+        } catch (Exception e) {
+            failures++;
+            LOG.error("Code generation failed: %s", e.getMessage());
+        }
+        written.putAll(geci.modifiedFileHashes());
+        sources = geci.collectedFiles();
+    }
+
+    /**
+     * The directories are watched only after the first run, therefore
+     * the files modified during the first run are not reported by the
+     * watch service.
+     *
+     * @param file the absolute file name
+     * @param time the start of the first run
+     * @return {@code true} if the file was modified after the time
+     */
+    private static boolean isModifiedSince(String file, FileTime time) {
+        try {
+            return Files.getLastModifiedTime(Paths.get(file)).compareTo(time) >= 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * The content is compared and not the modification time, because
+     * the resolution of the file time may be too coarse to distinguish
+     * an edit that immediately follows the code generation.
+     *
+     * @param file the absolute file name
+     * @return {@code true} if the file still has the content the code
+     * generation has written into it
+     */
+    private boolean isOwnWrite(String file) {
+        final var hash = written.get(file);
+        try {
+            return hash != null && hash == contentHash(file);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static int contentHash(String file) throws IOException {
+        return Source.contentHash(Files.readAllBytes(Paths.get(file)));
+    }
+
+    private void collectChanges(WatchKey key, Set<String> changed, Set<String> deleted) throws IOException {
+        final var directory = watched.get(key);
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW || directory == null) {
+                continue;
+            }
+            final var path = directory.resolve((Path) event.context());
+            if (event.kind() == ENTRY_DELETE) {
+                if (isSourceOrDirectory(path)) {
+                    deleted.add(FileCollector.toAbsolute(path));
+                }
+            } else if (Files.isDirectory(path)) {
+                if (event.kind() == ENTRY_CREATE) {
+                    registerAll(path, changed);
+                }
+            } else if (Files.isRegularFile(path)) {
+                changed.add(FileCollector.toAbsolute(path));
+            }
+        }
+        if (!key.reset()) {
+            watched.remove(key);
+        }
+    }
+
+    /**
+     * The deleted files that were not collected as sources, for example
+     * the temporary files used to save the sources, do not need a new
+     * run.
+     *
+     * @param path the deleted file or directory
+     * @return {@code true} if the path was a collected source or a
+     * watched directory
+     */
+    private boolean isSourceOrDirectory(Path path) {
+        return sources.contains(FileCollector.toAbsolute(path)) || watched.containsValue(path);
+    }
+
+    /**
+     * Watch the directory and all its subdirectories, except those that
+     * the code generation ignores as a whole.
+     *
+     * @param root    the directory
+     * @param changed the files found in the directories are added to
+     *                it. A new directory may already contain files by
+     *                the time it is watched.
+     * @throws IOException if the directories cannot be watched
+     */
+    private void registerAll(Path root, Set<String> changed) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attrs) throws IOException {
+                if (ignoredDirectories.test(directory)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                watched.put(directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), directory);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile()) {
+                    changed.add(FileCollector.toAbsolute(file));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
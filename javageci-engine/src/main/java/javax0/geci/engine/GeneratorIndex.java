@@ -0,0 +1,138 @@
+package javax0.geci.engine;
+
+import javax0.geci.api.Generator;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Inverted index from the properties of the sources to the generators
+ * that are interested in them. The generators declare their interest
+ * implementing the methods {@link Generator#extensions()}, {@link
+ * Generator#sourceSets()}, {@link Generator#markers()} and {@link
+ * Generator#mnemonics()}. Generators that do not declare anything are
+ * interested in all sources.
+ *
+ * <p>The list of the interested generators is calculated once for each
+ * source and it keeps the order of the registration of the generators.
+ */
+class GeneratorIndex {
+    private final List<Generator> generators;
+    private final Map<String, BitSet> byExtension = new HashMap<>();
+    private final BitSet anyExtension = new BitSet();
+    private final Map<Source.Set, BitSet> bySet = new HashMap<>();
+    private final BitSet anySet = new BitSet();
+    private final List<Set<String>> markers = new ArrayList<>();
+    private final CandidateIndex candidates;
+    private final Map<Source, List<Generator>> routed = new HashMap<>();
+
+    /**
+     * @param generators the generators in the order of registration
+     * @param prefilter  {@code true} if the generators that do not
+     *                   declare any marker should get only the sources
+     *                   containing any of the {@link
+     *                   CandidateIndex#STANDARD_MARKERS}
+     */
+    GeneratorIndex(List<Generator> generators, boolean prefilter) {
+        this.generators = new ArrayList<>(generators);
+        for (int i = 0; i < this.generators.size(); i++) {
+            final var generator = this.generators.get(i);
+            final var extensions = generator.extensions();
+            if (extensions == null) {
+                anyExtension.set(i);
+            } else {
+                for (final var extension : extensions) {
+                    byExtension.computeIfAbsent(extension.startsWith(".") ? extension.substring(1) : extension,
+                        k -> new BitSet()).set(i);
+                }
+            }
+            final var sets = generator.sourceSets();
+            if (sets == null) {
+                anySet.set(i);
+            } else {
+                for (final var set : sets) {
+                    bySet.computeIfAbsent(set, k -> new BitSet()).set(i);
+                }
+            }
+            markers.add(markersOf(generator, prefilter));
+        }
+        candidates = new CandidateIndex(markers.stream()
+            .filter(Objects::nonNull)
+            .flatMap(Set::stream)
+            .collect(Collectors.toSet()));
+    }
+
+    /**
+     * @param generator the generator
+     * @param prefilter see the constructor
+     * @return the union of the markers and the mnemonics the generator
+     * declared, the standard markers if it did not declare any and the
+     * prefiltering is switched on, or {@code null} when the generator
+     * is not restricted by markers
+     */
+    private static Set<String> markersOf(Generator generator, boolean prefilter) {
+        final var markers = generator.markers();
+        final var mnemonics = generator.mnemonics();
+        if (markers == null && mnemonics == null) {
+            return prefilter ? CandidateIndex.STANDARD_MARKERS : null;
+        }
+        final var union = new HashSet<String>();
+        if (markers != null) {
+            union.addAll(markers);
+        }
+        if (mnemonics != null) {
+            union.addAll(mnemonics);
+        }
+        return union;
+    }
+
+    /**
+     * Get the generators that are interested in the source.
+     *
+     * @param source the source
+     * @return the list of the generators that are interested in the
+     * source in the order they were registered
+     */
+    List<Generator> generatorsFor(Source source) {
+        return routed.computeIfAbsent(source, this::route);
+    }
+
+    private List<Generator> route(Source source) {
+        final var interested = (BitSet) anyExtension.clone();
+        final var byThisExtension = byExtension.get(extension(source.getAbsoluteFile()));
+        if (byThisExtension != null) {
+            interested.or(byThisExtension);
+        }
+        final var inSet = (BitSet) anySet.clone();
+        final var byThisSet = source.sourceSet == null ? null : bySet.get(source.sourceSet);
+        if (byThisSet != null) {
+            inSet.or(byThisSet);
+        }
+        interested.and(inSet);
+        final var result = new ArrayList<Generator>(interested.cardinality());
+        for (int i = interested.nextSetBit(0); i >= 0; i = interested.nextSetBit(i + 1)) {
+            if (candidates.isCandidate(source, markers.get(i))) {
+                result.add(generators.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param fileName the name of the file
+     * @return the extension of the file without the dot or empty
+     * string if the file name has no extension
+     */
+    private static String extension(String fileName) {
+        final var slash = fileName.lastIndexOf('/');
+        final var dot = fileName.lastIndexOf('.');
+        return dot > slash ? fileName.substring(dot + 1) : "";
+    }
+}
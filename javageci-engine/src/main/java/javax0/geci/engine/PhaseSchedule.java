@@ -0,0 +1,119 @@
+package javax0.geci.engine;
+
+import javax0.geci.api.GeciException;
+import javax0.geci.api.Generator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which generators are active in which phase.
+ *
+ * <p>Generators that declare data dependencies implementing {@link
+ * Generator#produces()} or {@link Generator#consumes()} are scheduled
+ * according to the dependency graph. Such a generator runs exactly once,
+ * in the phase that follows the phases of all the generators that
+ * produce anything it consumes. Generators that do not declare
+ * dependencies are active in the phases they return {@code true} from
+ * {@link Generator#activeIn(int)}.
+ */
+class PhaseSchedule {
+    private final List<Generator> generators;
+    private final Map<Generator, Integer> levels = new IdentityHashMap<>();
+    private final int phases;
+
+    PhaseSchedule(List<Generator> generators) {
+        this.generators = generators;
+        final var producers = new HashMap<String, List<Generator>>();
+        for (final var generator : generators) {
+            if (isScheduled(generator)) {
+                for (final var key : generator.produces()) {
+                    producers.computeIfAbsent(key, k -> new ArrayList<>()).add(generator);
+                }
+            }
+        }
+        final var visiting = Collections.newSetFromMap(new IdentityHashMap<Generator, Boolean>());
+        for (final var generator : generators) {
+            if (isScheduled(generator)) {
+                level(generator, producers, visiting);
+            }
+        }
+        final var maxLevel = levels.values().stream().mapToInt(Integer::intValue).max().orElse(-1);
+        final var maxPhases = generators.stream()
+            .filter(g -> !isScheduled(g))
+            .mapToInt(Generator::phases)
+            .max()
+            .orElse(levels.isEmpty() ? 1 : 0);
+        phases = Math.max(maxLevel + 1, maxPhases);
+    }
+
+    private static boolean isScheduled(Generator generator) {
+        return !generator.produces().isEmpty() || !generator.consumes().isEmpty();
+    }
+
+    /**
+     * Calculate the level of the generator in the dependency graph
+     * recursively.
+     *
+     * @param generator the generator
+     * @param producers the generators producing the different keys
+     * @param visiting  the generators on the current path of the
+     *                  recursion to detect cycles
+     * @return the level of the generator
+     */
+    private int level(Generator generator, Map<String, List<Generator>> producers, Set<Generator> visiting) {
+        final var known = levels.get(generator);
+        if (known != null) {
+            return known;
+        }
+        if (!visiting.add(generator)) {
+            throw new GeciException("Generators " + visiting.stream()
+                .map(g -> g.getClass().getName())
+                .collect(Collectors.joining(","))
+                + " depend on each other in a cycle.");
+        }
+        var level = 0;
+        for (final var key : generator.consumes()) {
+            for (final var producer : producers.getOrDefault(key, List.of())) {
+                if (producer != generator) {
+                    level = Math.max(level, level(producer, producers, visiting) + 1);
+                }
+            }
+        }
+        visiting.remove(generator);
+        levels.put(generator, level);
+        return level;
+    }
+
+    /**
+     * @return the number of the phases to run
+     */
+    int phases() {
+        return phases;
+    }
+
+    /**
+     * Get the generators that are active in the phase. The method
+     * {@link Generator#activeIn(int)} is invoked once for each generator
+     * that does not declare dependencies.
+     *
+     * @param phase the phase
+     * @return the active generators in the order of the registration
+     */
+    List<Generator> activeIn(int phase) {
+        final var active = new ArrayList<Generator>();
+        for (final var generator : generators) {
+            final var level = levels.get(generator);
+            if (level == null ? generator.activeIn(phase) : level == phase) {
+                active.add(generator);
+            }
+        }
+        return active;
+    }
+}
@@ -6,6 +6,7 @@ import javax0.geci.tools.CompoundParamsBuilder;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 
 /**
@@ -17,6 +18,9 @@ public class RegexBasedSegmentSplitHelper implements SegmentSplitHelper {
     private final Pattern endPattern;
     private final Pattern defaultPattern;
     private final List<String> excludedKeys;
+    private Predicate<String> startPrecheck = line -> true;
+    private Predicate<String> endPrecheck = line -> true;
+    private Predicate<String> defaultPrecheck = line -> true;
     protected int defaultOffset = 0;
     private String[] segmentPreface = new String[]{""};
     private String[] segmentPostface = new String[]{""};
@@ -43,6 +47,38 @@ public class RegexBasedSegmentSplitHelper implements SegmentSplitHelper {
         this.segmentPostface = segmentPostface;
     }
 
+    /**
+     * Set cheap checks that are evaluated before the regular
+     * expressions. A check has to return {@code true} for every line
+     * that the corresponding pattern matches. When it returns {@code
+     * false} the regular expression is not evaluated. A typical check
+     * looks for a literal string that the pattern requires, for example
+     * {@code line -> line.contains("editor-fold")}.
+     *
+     * @param start  the check before the start pattern
+     * @param end    the check before the end pattern
+     * @param dflt   the check before the default pattern
+     */
+    protected void setPrechecks(Predicate<String> start, Predicate<String> end, Predicate<String> dflt) {
+        this.startPrecheck = start;
+        this.endPrecheck = end;
+        this.defaultPrecheck = dflt;
+    }
+
+    /**
+     * @param line   the line to check
+     * @param prefix the prefix
+     * @return {@code true} if the line starts with the prefix after the
+     * leading white spaces
+     */
+    protected static boolean startsAfterSpaces(String line, String prefix) {
+        int i = 0;
+        while (i < line.length() && Character.isWhitespace(line.charAt(i))) {
+            i++;
+        }
+        return line.startsWith(prefix, i);
+    }
+
     public String[] getSegmentPreface() {
         return segmentPreface;
     }
@@ -89,42 +125,62 @@ public class RegexBasedSegmentSplitHelper implements SegmentSplitHelper {
         this.excludedKeys = excludedKeys;
     }
 
+    /**
+     * Create a matcher for the line. The patterns are evaluated only
+     * when the corresponding method of the returned matcher is invoked
+     * and the attributes of a segment start line are parsed only when
+     * {@link SegmentSplitHelper.Matcher#attributes()} is invoked.
+     *
+     * @param line the line to match
+     * @return the matcher
+     */
     @Override
     public SegmentSplitHelper.Matcher match(String line) {
+        return new Matcher(this, line);
+    }
+
+    private java.util.regex.Matcher startMatcher(String line) {
+        if (!startPrecheck.test(line)) {
+            return null;
+        }
         final var startMatcher = startPattern.matcher(line);
-        final var segmentStart = startMatcher.matches();
-        final CompoundParams attrs;
-        int tabs = 0;
-        if (segmentStart) {
-            final var paramsDef = getGroup(2, startMatcher);
-            if (paramsDef == null) {
-                throw new IllegalArgumentException("Start pattern in "
-                    + this.getClass()
-                    + "\n"
-                    + startMatcher
-                    + "\ndoes not give a second matching group. This is probably a coding error in that class.");
-            }
-            attrs = new CompoundParamsBuilder(paramsDef).exclude(excludedKeys.toArray(new String[excludedKeys.size()])).redefineId().build();
-            final var startSpaces = getGroup(1, startMatcher);
-            if (startSpaces == null) {
-                throw new IllegalArgumentException("Start pattern in "
-                    + this.getClass()
-                    + "\n"
-                    + startMatcher
-                    + "\ndoes not give a first matching group. This is probably a coding error in that class.");
-            }
+        return startMatcher.matches() ? startMatcher : null;
+    }
+
+    private boolean matchesEnd(String line) {
+        return endPrecheck.test(line) && endPattern.matcher(line).matches();
+    }
 
-            tabs = startSpaces.length();
-        } else {
-            attrs = null;
+    private int defaultTabs(String line) {
+        if (!defaultPrecheck.test(line)) {
+            return -1;
         }
-        final var segmentEnd = endPattern.matcher(line).matches();
         final var defaultMatcher = defaultPattern.matcher(line);
-        final var segmentDefault = defaultMatcher.matches();
-        if (segmentDefault) {
-            tabs = defaultMatcher.group(1).length() + defaultOffset;
+        return defaultMatcher.matches() ? defaultMatcher.group(1).length() + defaultOffset : -1;
+    }
+
+    private int startTabs(java.util.regex.Matcher startMatcher) {
+        final var startSpaces = getGroup(1, startMatcher);
+        if (startSpaces == null) {
+            throw new IllegalArgumentException("Start pattern in "
+                + this.getClass()
+                + "\n"
+                + startMatcher
+                + "\ndoes not give a first matching group. This is probably a coding error in that class.");
+        }
+        return startSpaces.length();
+    }
+
+    private CompoundParams attributes(java.util.regex.Matcher startMatcher) {
+        final var paramsDef = getGroup(2, startMatcher);
+        if (paramsDef == null) {
+            throw new IllegalArgumentException("Start pattern in "
+                + this.getClass()
+                + "\n"
+                + startMatcher
+                + "\ndoes not give a second matching group. This is probably a coding error in that class.");
         }
-        return new Matcher(segmentStart, segmentEnd, segmentDefault, attrs, tabs);
+        return new CompoundParamsBuilder(paramsDef).exclude(excludedKeys.toArray(new String[excludedKeys.size()])).redefineId().build();
     }
 
     /**
@@ -158,54 +214,87 @@ public class RegexBasedSegmentSplitHelper implements SegmentSplitHelper {
     }
 
     protected static class Matcher implements SegmentSplitHelper.Matcher {
+        private static final int UNKNOWN = -2;
 
-        private final boolean segmentStart;
-        private final boolean segmentEnd;
-        private final boolean segmentDefault;
-        private final CompoundParams attrs;
-        private final int tabs;
+        private final RegexBasedSegmentSplitHelper helper;
+        private final String line;
+        private java.util.regex.Matcher startMatcher;
+        private Boolean segmentStart;
+        private Boolean segmentEnd;
+        private int defaultTabs = UNKNOWN;
+        private CompoundParams attrs;
+        private Integer tabs;
 
         protected Matcher(boolean segmentStart, boolean segmentEnd, boolean segmentDefault, CompoundParams attrs, int tabs) {
+            this.helper = null;
+            this.line = null;
             this.segmentStart = segmentStart;
             this.segmentEnd = segmentEnd;
-            this.segmentDefault = segmentDefault;
+            this.defaultTabs = segmentDefault ? tabs : -1;
             this.attrs = attrs;
             this.tabs = tabs;
         }
 
+        private Matcher(RegexBasedSegmentSplitHelper helper, String line) {
+            this.helper = helper;
+            this.line = line;
+        }
+
         @Override
         public int headerLength(){
-            return segmentDefault ? 0 : 1;
+            return isDefaultSegmentEnd() ? 0 : 1;
         }
 
         @Override
         public boolean isSegmentStart() {
+            if (segmentStart == null) {
+                startMatcher = helper.startMatcher(line);
+                segmentStart = startMatcher != null;
+            }
             return segmentStart;
         }
 
         @Override
         public boolean isSegmentEnd() {
+            if (segmentEnd == null) {
+                segmentEnd = helper.matchesEnd(line);
+            }
             return segmentEnd;
         }
 
         @Override
         public boolean isDefaultSegmentEnd() {
-            return segmentDefault;
+            if (defaultTabs == UNKNOWN) {
+                defaultTabs = helper.defaultTabs(line);
+            }
+            return defaultTabs >= 0;
         }
 
         @Override
         public int tabbing() {
+            if (tabs == null) {
+                if (isDefaultSegmentEnd()) {
+                    tabs = defaultTabs;
+                } else if (isSegmentStart()) {
+                    tabs = helper.startTabs(startMatcher);
+                } else {
+                    tabs = 0;
+                }
+            }
             return tabs;
         }
 
         @Override
         public CompoundParams attributes() {
-            if (!segmentStart) {
+            if (!isSegmentStart()) {
                 throw new IllegalArgumentException("attributes on " +
                     SegmentSplitHelper.class.getSimpleName() + "." +
                     SegmentSplitHelper.Matcher.class.getSimpleName() +
                     " are not defined when the it is not a segment start.");
             }
+            if (attrs == null && helper != null) {
+                attrs = helper.attributes(startMatcher);
+            }
             return attrs;
         }
     }
@@ -5,21 +5,34 @@ import javax0.geci.api.GeciException;
 import javax0.geci.tools.Template;
 import javax0.geci.tools.Tracer;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 public class Segment implements javax0.geci.api.Segment {
     private static final int TAB = 4;
-    final List<String> preface = new LinkedList<>();
-    final List<String> lines = new LinkedList<>();
-    final List<String> postface = new LinkedList<>();
+    private static final String[] INDENTS = new String[64];
+
+    static {
+        for (int i = 0; i < INDENTS.length; i++) {
+            INDENTS[i] = " ".repeat(i);
+        }
+    }
+
+    final List<String> preface = new ArrayList<>();
+    final List<String> lines = new ArrayList<>();
+    final List<String> postface = new ArrayList<>();
     final private int openingTabStop;
     private int tabStop;
     private final Map<String, String> params = new HashMap<>();
+    // the previous values of the parameters written in the open scopes, innermost first
+    private final Deque<Map<String, String>> scopes = new ArrayDeque<>();
+    private final Template template = new Template(params);
     private final CompoundParams cparams;
     private final List<String> originals;
     private long touchBits = 0;
@@ -59,7 +72,64 @@ public class Segment implements javax0.geci.api.Segment {
             throw new IllegalArgumentException("Parameters to Segment.param() should be in pair");
         }
         for (int i = 0; i < keyValuePairs.length; i += 2) {
-            params.put(keyValuePairs[i], keyValuePairs[i + 1]);
+            put(keyValuePairs[i], keyValuePairs[i + 1]);
+        }
+        return this;
+    }
+
+    /**
+     * The values the parameters had before the scope was opened are
+     * saved and put back when the scope is closed. This also applies to
+     * the parameters that are set calling {@link #param(String...)}
+     * while the scope is the innermost open scope.
+     */
+    @Override
+    public ParamScope paramScope(String... keyValuePairs) {
+        if (keyValuePairs.length % 2 == 1) {
+            throw new IllegalArgumentException("Parameters to Segment.paramScope() should be in pair");
+        }
+        final var saved = new HashMap<String, String>();
+        scopes.push(saved);
+        param(keyValuePairs);
+        return () -> {
+            scopes.remove(saved);
+            for (final var entry : saved.entrySet()) {
+                if (entry.getValue() == null) {
+                    params.remove(entry.getKey());
+                } else {
+                    params.put(entry.getKey(), entry.getValue());
+                }
+            }
+        };
+    }
+
+    private void put(String key, String value) {
+        final var saved = scopes.peek();
+        if (saved != null && !saved.containsKey(key)) {
+            saved.put(key, params.get(key));
+        }
+        params.put(key, value);
+    }
+
+    @Override
+    public Segment fork() {
+        final var fork = new Segment(0);
+        fork.params.putAll(params);
+        return fork;
+    }
+
+    @Override
+    public Segment append(javax0.geci.api.Segment fork) {
+        if (!(fork instanceof Segment)) {
+            throw new GeciException("Segment " + fork + " is not instance of " + Segment.class.getName() +
+                ". It is " + fork.getClass().getName() + " which is not compatible with this implementation");
+        }
+        final var other = (Segment) fork;
+        for (final var line : other.lines) {
+            lines.add(line.isEmpty() ? line : indent(line));
+        }
+        for (final var entry : other.params.entrySet()) {
+            put(entry.getKey(), entry.getValue());
         }
         return this;
     }
@@ -103,14 +173,14 @@ public class Segment implements javax0.geci.api.Segment {
     @Override
     public void setPreface(String... preface) {
         for (String s : preface) {
-            this.preface.add((tabStop > 0 ? String.format("%" + tabStop + "s", " ") : "") + s);
+            this.preface.add(indent(s));
         }
     }
 
     @Override
     public void setPostface(String... postface) {
         for (String s : postface) {
-            this.postface.add((tabStop > 0 ? String.format("%" + tabStop + "s", " ") : "") + s);
+            this.postface.add(indent(s));
         }
     }
 
@@ -141,29 +211,94 @@ public class Segment implements javax0.geci.api.Segment {
     @Override
     public Segment write(String s, Object... parameters) {
         if (s != null) {
-            if (!s.contains("\n") && s.trim().length() == 0) {
+            if (isBlankLine(s)) {
                 newline();
             } else {
                 final String formatted;
-                if (!params.isEmpty()) {
-                    formatted = new Template(params).resolve(parameters.length == 0 ? s : String.format(s, parameters));
+                if (parameters.length == 0 || s.indexOf('%') == -1) {
+                    formatted = s;
                 } else {
-                    if (parameters.length == 0) {
-                        formatted = s;
+                    formatted = String.format(s, parameters);
+                }
+                if (params.isEmpty() || formatted.indexOf("{{") == -1) {
+                    addLine(formatted);
+                } else if (formatted.indexOf('\n') == -1) {
+                    final var sb = new StringBuilder(Math.max(tabStop, 0) + formatted.length() + 16);
+                    appendIndent(sb);
+                    final var indentLength = sb.length();
+                    template.resolve(formatted, sb);
+                    if (sb.indexOf("\n", indentLength) == -1) {
+                        lines.add(sb.toString());
                     } else {
-                        formatted = String.format(s, parameters);
+                        splitAndWrite(sb.substring(indentLength));
                     }
-                }
-                if (formatted.contains("\n")) {
-                    Arrays.stream(formatted.split("\r?\n", -1)).forEach(this::write);
                 } else {
-                    lines.add((tabStop > 0 ? String.format("%" + tabStop + "s", " ") : "") + formatted);
+                    writeLines(formatted);
                 }
             }
         }
         return this;
     }
 
+    private void addLine(String line) {
+        if (line.indexOf('\n') == -1) {
+            lines.add(indent(line));
+        } else {
+            splitAndWrite(line);
+        }
+    }
+
+    /**
+     * Write a multi-line template line by line. The result is the same
+     * as writing the lines of the resolved template, but the template
+     * is split only once and not each time it is written.
+     *
+     * @param multiLine the template containing new line characters
+     */
+    private void writeLines(String multiLine) {
+        for (final var line : Template.lines(multiLine)) {
+            write(line.indexOf("{{") == -1 ? line : template.resolve(line));
+        }
+    }
+
+    private void splitAndWrite(String multiLine) {
+        Arrays.stream(multiLine.split("\r?\n", -1)).forEach(this::write);
+    }
+
+    /**
+     * @param s the string to check
+     * @return {@code true} if the string is a single line and contains
+     * only white space characters, the same way as {@code
+     * s.trim().length() == 0} but without creating a new string
+     */
+    private static boolean isBlankLine(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            final var c = s.charAt(i);
+            if (c > ' ' || c == '\n') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param s the line to indent
+     * @return the line prefixed with as many spaces as the current tab
+     * stop
+     */
+    private String indent(String s) {
+        if (tabStop <= 0) {
+            return s;
+        }
+        return (tabStop < INDENTS.length ? INDENTS[tabStop] : " ".repeat(tabStop)) + s;
+    }
+
+    private void appendIndent(StringBuilder sb) {
+        if (tabStop > 0) {
+            sb.append(tabStop < INDENTS.length ? INDENTS[tabStop] : " ".repeat(tabStop));
+        }
+    }
+
     @Override
     public Segment newline() {
         lines.add("");
@@ -13,16 +13,20 @@ import javax0.geci.util.JavaSegmentSplitHelper;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
 
 public class Source implements javax0.geci.api.Source {
     final List<String> lines = new ArrayList<>();
@@ -40,6 +44,12 @@ public class Source implements javax0.geci.api.Source {
     boolean allowDefaultSegment = false;
     boolean isBinary = false;
     private boolean isBorrowed = false;
+    /**
+     * The source set the source was collected from or {@code null} if
+     * the source was not collected, for example it is a new source or
+     * a mock.
+     */
+    Source.Set sourceSet = null;
 
     public MockSourceStore getSourceStore() {
         if( store instanceof MockSourceStore) {
@@ -182,8 +192,16 @@ public class Source implements javax0.geci.api.Source {
         return touched;
     }
 
+    /**
+     * @return the touch bits of the source including the bits of the
+     * segments that were not consolidated yet
+     */
     long getTouchBits() {
-        return touchBits;
+        var bits = touchBits;
+        for (final var segment : segments.values()) {
+            bits |= segment.touch(0);
+        }
+        return bits;
     }
 
     @Override
@@ -400,6 +418,50 @@ public class Source implements javax0.geci.api.Source {
         }
     }
 
+    /**
+     * Get the identifiers of the segments that are inserted as new
+     * segments or that have a content different from the original. The
+     * lines are compared exactly, therefore a segment may be listed even
+     * if the source comparator finds the source unchanged. This is used
+     * only to summarize the changes when a source is out of date.
+     *
+     * <p>The method has to be called before {@link #consolidate()}.
+     *
+     * @return the sorted identifiers of the changed segments
+     */
+    List<String> changedSegments() {
+        return segments.entrySet().stream()
+            .filter(e -> !e.getValue().preface.isEmpty()
+                || !e.getValue().postface.isEmpty()
+                || !e.getValue().lines.equals(e.getValue().originalLines()))
+            .map(Map.Entry::getKey)
+            .sorted()
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Decide if the segments written so far change the source without
+     * consolidating it. This is used to stop the verification before
+     * all the phases are executed.
+     *
+     * @param comparator compares the original and the generated lines
+     *                   and returns {@code true} if they differ
+     * @return {@code true} if any segment differs from its original
+     * content
+     */
+    boolean hasModifiedSegment(BiPredicate<List<String>, List<String>> comparator) {
+        if (globalSegment != null) {
+            return comparator.test(originals, globalSegment.lines);
+        }
+        for (final var segment : segments.values()) {
+            if (!segment.preface.isEmpty() || !segment.postface.isEmpty()
+                || comparator.test(segment.originalLines(), segment.lines)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Replace the original content of the segments with the generated lines.
      */
@@ -410,19 +472,18 @@ public class Source implements javax0.geci.api.Source {
                 "This is an internal error: source was not read into memory but segments were generated");
         }
         if (globalSegment == null) {
-            for (var entry : segments.entrySet()) {
-                touched = true;
-                var id = entry.getKey();
-                Segment segment = entry.getValue();
+            if (segments.isEmpty()) {
+                return;
+            }
+            touched = true;
+            for (final var segment : segments.values()) {
                 touchBits |= segment.touch(0);
-                var segmentLocation = findSegment(id);
-                if (segmentLocation == null) {
-                    segmentLocation = findDefaultSegment();
-                    if (segmentLocation == null) {
-                        throw new GeciException("Segment " + id + " disappeared from source" + absoluteFile);
-                    }
-                }
-                mergeSegment(segment, segmentLocation);
+            }
+            final var merges = locateMerges();
+            if (merges == null) {
+                consolidateOneByOne();
+            } else {
+                mergeAll(merges);
             }
         } else {
             touched = true;
@@ -431,6 +492,138 @@ public class Source implements javax0.geci.api.Source {
         }
     }
 
+    /**
+     * Replace the segments one after the other, searching each segment
+     * again in the already partially modified lines. This is used when
+     * the segments can not be merged in a single pass, because the
+     * result would depend on the order of the merging.
+     */
+    private void consolidateOneByOne() {
+        for (var entry : segments.entrySet()) {
+            var id = entry.getKey();
+            Segment segment = entry.getValue();
+            var segmentLocation = findSegment(id);
+            if (segmentLocation == null) {
+                segmentLocation = findDefaultSegment();
+                if (segmentLocation == null) {
+                    throw new GeciException("Segment " + id + " disappeared from source" + absoluteFile);
+                }
+            }
+            mergeSegment(segment, segmentLocation);
+        }
+    }
+
+    /**
+     * A segment to be merged into the lines and the location where it
+     * has to be merged.
+     */
+    private static class Merge {
+        final Segment segment;
+        final SegmentDescriptor location;
+
+        Merge(Segment segment, SegmentDescriptor location) {
+            this.segment = segment;
+            this.location = location;
+        }
+    }
+
+    /**
+     * Find the location of all the segments scanning the lines only
+     * once.
+     *
+     * @return the list of the merges sorted by the location, or {@code
+     * null} if the segments cannot be merged in a single pass. This is
+     * the case when the segments overlap or when a segment that goes
+     * into the default location is followed by another segment, which
+     * may write lines that would change the default location.
+     */
+    private List<Merge> locateMerges() {
+        final var locations = new HashMap<String, SegmentDescriptor>();
+        for (int i = 0; i < lines.size(); i++) {
+            final var matcher = splitHelper.match(lines, i);
+            if (matcher.isSegmentStart()) {
+                final var attr = matcher.attributes();
+                final var id = attr.id();
+                if (segments.containsKey(id) && !locations.containsKey(id)) {
+                    var seg = new SegmentDescriptor();
+                    seg.id = id;
+                    seg.attr = attr;
+                    seg.tab = matcher.tabbing();
+                    seg.startLine = i + matcher.headerLength();
+                    seg.endLine = -1;
+                    for (int j = seg.startLine; j < lines.size(); j++) {
+                        if (splitHelper.match(lines.get(j)).isSegmentEnd()) {
+                            seg.endLine = j;
+                            break;
+                        }
+                    }
+                    if (seg.endLine == -1) {
+                        throw new GeciException("Segment '" + seg.attr.id() + "'does not end in file " + getAbsoluteFile());
+                    }
+                    locations.put(id, seg);
+                }
+            }
+        }
+        final var merges = new ArrayList<Merge>(segments.size());
+        SegmentDescriptor defaultLocation = null;
+        for (var entry : segments.entrySet()) {
+            var location = locations.get(entry.getKey());
+            if (location == null) {
+                if (defaultLocation == null) {
+                    defaultLocation = findDefaultSegment();
+                    if (defaultLocation == null) {
+                        throw new GeciException("Segment " + entry.getKey() + " disappeared from source" + absoluteFile);
+                    }
+                }
+                location = defaultLocation;
+            }
+            merges.add(new Merge(entry.getValue(), location));
+        }
+        merges.sort(Comparator.comparingInt(m -> m.location.startLine));
+        var previousEnd = 0;
+        for (final var merge : merges) {
+            if (merge.location.startLine < previousEnd) {
+                return null;
+            }
+            previousEnd = merge.location.endLine;
+        }
+        if (defaultLocation != null && merges.get(merges.size() - 1).location != defaultLocation) {
+            return null;
+        }
+        return merges;
+    }
+
+    /**
+     * Build the new lines in a single sweep copying the lines between
+     * the segments and the generated lines of the segments.
+     *
+     * @param merges the merges sorted by location. The segments that go
+     *               to the same default location are in the order they
+     *               would have been merged one by one.
+     */
+    private void mergeAll(List<Merge> merges) {
+        var size = lines.size();
+        for (final var merge : merges) {
+            size += merge.segment.preface.size() + merge.segment.lines.size() + merge.segment.postface.size();
+        }
+        final var merged = new ArrayList<String>(size);
+        var position = 0;
+        for (final var merge : merges) {
+            final var location = merge.location;
+            final var segment = merge.segment;
+            if (location.startLine < location.endLine || segment.lines.size() > 0) {
+                merged.addAll(lines.subList(position, location.startLine));
+                merged.addAll(segment.preface);
+                merged.addAll(segment.lines);
+                merged.addAll(segment.postface);
+                position = location.endLine;
+            }
+        }
+        merged.addAll(lines.subList(position, lines.size()));
+        lines.clear();
+        lines.addAll(merged);
+    }
+
     private void mergeSegment(Segment segment, SegmentDescriptor segmentLocation) {
         if (segmentLocation.startLine < segmentLocation.endLine
             || segment.lines.size() > 0) {
@@ -451,18 +644,95 @@ public class Source implements javax0.geci.api.Source {
     }
 
     /**
-     * Saves the modified lines to the file.
+     * Saves the modified lines to the file. Each line is terminated by
+     * the system line separator the same way as {@link
+     * Files#write(Path, Iterable, java.nio.charset.Charset,
+     * java.nio.file.OpenOption...)} does.
+     *
+     * <p>The file is not written when it already contains exactly the
+     * same bytes. Otherwise the content of an existing file is written
+     * into a temporary file in the same directory, which is then moved
+     * atomically in place of the original file. That way a crash during
+     * the writing does not leave a truncated source file behind.
+     *
+     * <p>The method does not use the fields of the object other than
+     * {@code absoluteFile} and {@code lines}, therefore different
+     * sources can be saved parallel.
+     *
+     * @return {@code true} if the file was written, {@code false} if
+     * it already had the same content
+     * @throws IOException if the file cannot be written
      */
-    void save() throws IOException {
-        Path path = Paths.get(absoluteFile);
-        Path parent = path.getParent();
+    boolean save() throws IOException {
+        final var path = Paths.get(absoluteFile);
+        final var parent = path.getParent();
         if (!Files.exists(parent)) {
             try {
                 Files.createDirectories(parent);
             } catch (Exception ignored) {
             }
         }
-        Files.write(Paths.get(absoluteFile), lines, StandardCharsets.UTF_8);
+        final var content = toBytes(lines);
+        if (!Files.exists(path)) {
+            Files.write(path, content);
+            return true;
+        }
+        if (Files.size(path) == content.length && Arrays.equals(Files.readAllBytes(path), content)) {
+            return false;
+        }
+        final var temp = Files.createTempFile(parent, "." + path.getFileName(), ".tmp");
+        try {
+            Files.write(temp, content);
+            copyPermissions(path, temp);
+            try {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return true;
+    }
+
+    /**
+     * @return the hash of the bytes {@link #save()} writes into the file
+     */
+    int contentHash() {
+        return contentHash(toBytes(lines));
+    }
+
+    /**
+     * @param bytes the content of a file
+     * @return the hash of the content
+     */
+    static int contentHash(byte[] bytes) {
+        return Arrays.hashCode(bytes);
+    }
+
+    private static byte[] toBytes(List<String> lines) {
+        final var separator = System.lineSeparator();
+        var size = 0;
+        for (final var line : lines) {
+            size += line.length() + separator.length();
+        }
+        final var sb = new StringBuilder(size);
+        for (final var line : lines) {
+            sb.append(line).append(separator);
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The temporary file is created readable only for the owner. The
+     * permissions of the original file are copied to the temporary file
+     * so that the saving does not change them.
+     */
+    private static void copyPermissions(Path from, Path to) {
+        try {
+            Files.setPosixFilePermissions(to, Files.getPosixFilePermissions(from));
+        } catch (UnsupportedOperationException | IOException ignored) {
+        }
     }
 
     /**
@@ -474,6 +744,10 @@ public class Source implements javax0.geci.api.Source {
      * @throws IOException if the file cannot be read
      */
     private void readToMemory() throws IOException {
+        if (collector != null && collector.warmCache != null) {
+            readFromCache(collector.warmCache);
+            return;
+        }
         try (final var stream = Files.lines(Paths.get(absoluteFile))) {
             stream.forEach(line -> {
                 lines.add(line);
@@ -490,6 +764,18 @@ public class Source implements javax0.geci.api.Source {
         }
     }
 
+    private void readFromCache(WarmCache warmCache) throws IOException {
+        try {
+            final var cached = warmCache.lines(Paths.get(absoluteFile));
+            lines.addAll(cached);
+            originals.addAll(cached);
+            inMemory = true;
+        } catch (UncheckedIOException e) {
+            isBinary = true;
+            throw new SourceIsBinary(absoluteFile);
+        }
+    }
+
     private SegmentDescriptor findDefaultSegment() {
         if (allowDefaultSegment) {
             for (int i = lines.size() - 1; 0 < i; i--) {
@@ -0,0 +1,161 @@
+package javax0.geci.engine;
+
+import javax0.geci.api.Source;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * JVM-wide cache of the file system information that the engine reads
+ * in every run. It is used only when it is switched on calling {@link
+ * Geci#warmCache()}. Consecutive code generation runs in the same JVM,
+ * like the different unit tests executed by surefire, can then reuse
+ * what the earlier runs have read.
+ *
+ * <p>The cache holds
+ *
+ * <ul>
+ *     <li>the list of the files in the source directories keyed by the
+ *     directory and the source set. The list is valid as long as the
+ *     modification time of none of the directories in the tree
+ *     changed, because adding, removing or renaming a file changes the
+ *     modification time of the directory it is in.</li>
+ *     <li>the lines of the source files. The lines are valid as long as
+ *     the modification time and the size of the file is the same.</li>
+ * </ul>
+ */
+class WarmCache {
+    static final WarmCache INSTANCE = new WarmCache();
+    // the cache is dropped when it gets full, like the cache of the templates
+    private static final int MAX_CACHED_LISTINGS = 256;
+    private static final int MAX_CACHED_CONTENTS = 16384;
+
+    private final Map<String, Listing> listings = new ConcurrentHashMap<>();
+    private final Map<Path, Content> contents = new ConcurrentHashMap<>();
+
+    private WarmCache() {
+    }
+
+    private static class Listing {
+        private final Map<Path, FileTime> directories;
+        private final List<Path> files;
+
+        private Listing(Map<Path, FileTime> directories, List<Path> files) {
+            this.directories = directories;
+            this.files = files;
+        }
+
+        private boolean isValid() {
+            for (final var entry : directories.entrySet()) {
+                try {
+                    if (!entry.getValue().equals(Files.getLastModifiedTime(entry.getKey()))) {
+                        return false;
+                    }
+                } catch (IOException e) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static class Content {
+        private final FileTime modified;
+        private final long size;
+        private final List<String> lines;
+
+        private Content(FileTime modified, long size, List<String> lines) {
+            this.modified = modified;
+            this.size = size;
+            this.lines = lines;
+        }
+    }
+
+    /**
+     * Creates the listing of a directory when it is not in the cache.
+     */
+    @FunctionalInterface
+    interface Lister {
+        /**
+         * @param directories the map to put the walked directories and
+         *                    their modification times into. The map is
+         *                    thread safe.
+         * @return the files of the listing
+         * @throws IOException if the directory cannot be walked
+         */
+        List<Path> list(Map<Path, FileTime> directories) throws IOException;
+    }
+
+    /**
+     * Get the files under the directory. The listing itself is created
+     * by the caller, which can skip the directories it does not need.
+     * The {@code filterKey} identifies the skipped directories, listings
+     * created skipping different directories are cached separately.
+     *
+     * @param set       the source set the directory belongs to
+     * @param root      the directory
+     * @param filterKey identifies the directories the lister skips
+     * @param lister    creates the listing when it is not cached or
+     *                  the cached listing is not valid any more
+     * @return the list of the files in the directory and in all its not
+     * skipped subdirectories
+     * @throws IOException if the directory cannot be walked
+     */
+    List<Path> files(Source.Set set, Path root, String filterKey, Lister lister) throws IOException {
+        final var key = set + "|" + root.toAbsolutePath().normalize() + "|" + filterKey;
+        final var cached = listings.get(key);
+        if (cached != null && cached.isValid()) {
+            return cached.files;
+        }
+        final var directories = new ConcurrentHashMap<Path, FileTime>();
+        final var listing = new Listing(directories, List.copyOf(lister.list(directories)));
+        if (listings.size() >= MAX_CACHED_LISTINGS) {
+            listings.clear();
+        }
+        listings.put(key, listing);
+        return listing.files;
+    }
+
+    /**
+     * Get the lines of the file. The reading fails the same way as
+     * reading with {@link Files#lines(Path)}, that is with an {@link
+     * java.io.UncheckedIOException} when the file is not a text file.
+     *
+     * @param path the file
+     * @return the unmodifiable list of the lines of the file
+     * @throws IOException if the file cannot be read
+     */
+    List<String> lines(Path path) throws IOException {
+        final var attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        final var cached = contents.get(path);
+        if (cached != null && cached.size == attributes.size()
+            && Objects.equals(cached.modified, attributes.lastModifiedTime())) {
+            return cached.lines;
+        }
+        final List<String> lines;
+        try (final var stream = Files.lines(path)) {
+            lines = stream.collect(Collectors.toUnmodifiableList());
+        }
+        if (contents.size() >= MAX_CACHED_CONTENTS) {
+            contents.clear();
+        }
+        contents.put(path, new Content(attributes.lastModifiedTime(), attributes.size(), lines));
+        return lines;
+    }
+
+    /**
+     * Drop everything from the cache.
+     */
+    void clear() {
+        listings.clear();
+        contents.clear();
+    }
+}
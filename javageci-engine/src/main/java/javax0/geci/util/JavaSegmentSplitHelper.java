@@ -13,6 +13,10 @@ public class JavaSegmentSplitHelper extends RegexBasedSegmentSplitHelper {
                 Arrays.asList("desc"));
         setSegmentPreface("//<editor-fold id=\"{{mnemonic}}\">");
         setSegmentPostface("//</editor-fold>");
+        setPrechecks(
+                line -> startsAfterSpaces(line, "//") && line.contains("editor-fold"),
+                line -> startsAfterSpaces(line, "//") && line.contains("editor-fold"),
+                line -> startsAfterSpaces(line, "}"));
         defaultOffset = 4;
     }
 }
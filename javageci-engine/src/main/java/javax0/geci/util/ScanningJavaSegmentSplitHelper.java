@@ -0,0 +1,220 @@
+package javax0.geci.util;
+
+import javax0.geci.api.CompoundParams;
+import javax0.geci.api.SegmentSplitHelper;
+import javax0.geci.tools.CompoundParamsBuilder;
+
+/**
+ * Segment split helper for Java sources that recognizes the same lines
+ * as {@link JavaSegmentSplitHelper} but scans the characters of the
+ * line instead of using regular expressions. This is the default split
+ * helper for the {@code .java} files.
+ *
+ * <p>The recognized lines are
+ *
+ * <ul>
+ *     <li>{@code // <editor-fold attributes>} starting a segment,</li>
+ *     <li>{@code // </editor-fold>} ending a segment and</li>
+ *     <li>a closing brace optionally followed by a {@code //} comment,
+ *     which is the default location of a segment.</li>
+ * </ul>
+ *
+ * <p>The white space characters are the same as {@code \s} in the
+ * regular expressions of {@link JavaSegmentSplitHelper}. Lines that are
+ * not any of the above are matched without creating any object.
+ */
+public class ScanningJavaSegmentSplitHelper implements SegmentSplitHelper {
+    private static final String EDITOR_FOLD = "editor-fold";
+    private static final String[] EXCLUDED_KEYS = {"desc"};
+    private static final LineMatcher NONE = new LineMatcher(false, false, false, 0, null);
+    private static final LineMatcher END = new LineMatcher(false, true, false, 0, null);
+
+    private final String[] segmentPreface = {"//<editor-fold id=\"{{mnemonic}}\">"};
+    private final String[] segmentPostface = {"//</editor-fold>"};
+
+    @Override
+    public SegmentSplitHelper.Matcher match(String line) {
+        final var length = line.length();
+        final var start = skipSpaces(line, 0);
+        if (start == length) {
+            return NONE;
+        }
+        if (line.charAt(start) == '}') {
+            return matchesDefault(line, start + 1) ? new LineMatcher(false, false, true, start + 4, null) : NONE;
+        }
+        if (!line.startsWith("//", start)) {
+            return NONE;
+        }
+        var i = skipSpaces(line, start + 2);
+        if (i == length || line.charAt(i) != '<') {
+            return NONE;
+        }
+        i = skipSpaces(line, i + 1);
+        if (i < length && line.charAt(i) == '/') {
+            i = skipSpaces(line, i + 1);
+            if (!line.startsWith(EDITOR_FOLD, i)) {
+                return NONE;
+            }
+            i = skipSpaces(line, i + EDITOR_FOLD.length());
+            if (i == length || line.charAt(i) != '>') {
+                return NONE;
+            }
+            return skipSpaces(line, i + 1) == length ? END : NONE;
+        }
+        if (!line.startsWith(EDITOR_FOLD, i)) {
+            return NONE;
+        }
+        i += EDITOR_FOLD.length();
+        final var afterKeyword = skipSpaces(line, i);
+        if (afterKeyword == i) {
+            return NONE;
+        }
+        final var close = lastNonSpace(line, afterKeyword);
+        if (close < 0 || line.charAt(close) != '>' || hasLineTerminator(line, afterKeyword, close)) {
+            return NONE;
+        }
+        return new LineMatcher(true, false, false, start, line.substring(afterKeyword, close));
+    }
+
+    /**
+     * @param line  the line
+     * @param start the position after the closing brace
+     * @return {@code true} if the rest of the line is empty or a line
+     * comment, the same as the regular expression {@code \s*(//.*)?\s*$}
+     */
+    private static boolean matchesDefault(String line, int start) {
+        final var i = skipSpaces(line, start);
+        if (i == line.length()) {
+            return true;
+        }
+        if (!line.startsWith("//", i)) {
+            return false;
+        }
+        for (int j = i + 2; j < line.length(); j++) {
+            if (isLineTerminator(line.charAt(j))) {
+                return skipSpaces(line, j) == line.length();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param line the line
+     * @param from the first position to check
+     * @return the position of the first character at or after {@code
+     * from} that is not a white space character
+     */
+    private static int skipSpaces(String line, int from) {
+        var i = from;
+        while (i < line.length() && isSpace(line.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @param line the line
+     * @param from the smallest position that can be returned
+     * @return the position of the last character that is not white
+     * space or -1 if there is no such character at or after {@code
+     * from}
+     */
+    private static int lastNonSpace(String line, int from) {
+        var i = line.length() - 1;
+        while (i >= from && isSpace(line.charAt(i))) {
+            i--;
+        }
+        return i >= from ? i : -1;
+    }
+
+    private static boolean hasLineTerminator(String line, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (isLineTerminator(line.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param c the character
+     * @return {@code true} if the character matches {@code \s}
+     */
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    /**
+     * @param c the character
+     * @return {@code true} if the character is not matched by {@code .}
+     */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    @Override
+    public String[] getSegmentPreface() {
+        return segmentPreface;
+    }
+
+    @Override
+    public String[] getSegmentPostface() {
+        return segmentPostface;
+    }
+
+    private static class LineMatcher implements SegmentSplitHelper.Matcher {
+        private final boolean segmentStart;
+        private final boolean segmentEnd;
+        private final boolean segmentDefault;
+        private final int tabs;
+        private final String attributesDefinition;
+        private CompoundParams attrs;
+
+        private LineMatcher(boolean segmentStart, boolean segmentEnd, boolean segmentDefault, int tabs, String attributesDefinition) {
+            this.segmentStart = segmentStart;
+            this.segmentEnd = segmentEnd;
+            this.segmentDefault = segmentDefault;
+            this.tabs = tabs;
+            this.attributesDefinition = attributesDefinition;
+        }
+
+        @Override
+        public int headerLength() {
+            return segmentDefault ? 0 : 1;
+        }
+
+        @Override
+        public boolean isSegmentStart() {
+            return segmentStart;
+        }
+
+        @Override
+        public boolean isSegmentEnd() {
+            return segmentEnd;
+        }
+
+        @Override
+        public boolean isDefaultSegmentEnd() {
+            return segmentDefault;
+        }
+
+        @Override
+        public int tabbing() {
+            return tabs;
+        }
+
+        @Override
+        public CompoundParams attributes() {
+            if (!segmentStart) {
+                throw new IllegalArgumentException("attributes on " +
+                    SegmentSplitHelper.class.getSimpleName() + "." +
+                    SegmentSplitHelper.Matcher.class.getSimpleName() +
+                    " are not defined when the it is not a segment start.");
+            }
+            if (attrs == null) {
+                attrs = new CompoundParamsBuilder(attributesDefinition).exclude(EXCLUDED_KEYS).redefineId().build();
+            }
+            return attrs;
+        }
+    }
+}
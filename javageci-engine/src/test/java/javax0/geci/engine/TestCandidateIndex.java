@@ -0,0 +1,71 @@
+package javax0.geci.engine;
+
+import javax0.geci.api.Distant;
+import javax0.geci.api.Generator;
+import javax0.geci.api.Source;
+import javax0.geci.tools.JVM8Tools;
+import javax0.geci.util.DirectoryLocator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static javax0.geci.api.Source.Predicates.exists;
+import static javax0.geci.api.Source.Set.set;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestCandidateIndex {
+
+    @Test
+    @DisplayName("A source is a candidate only if it contains any of the markers.")
+    void findsMarkersInSource() {
+        final Map<Source.Set, javax0.geci.api.DirectoryLocator> sources = JVM8Tools.asMap(set(), new DirectoryLocator(exists(), new String[]{"src/test/java/javax0/geci/engine"}));
+        final var collector = new FileCollector(sources);
+        collector.collect(Set.of(new Geci.PatternPredicate("TestPhasedExecution\\.java$")), null, Collections.emptySet());
+        assertEquals(1, collector.getSources().size());
+        final var source = collector.getSources().iterator().next();
+        final var sut = new CandidateIndex(Set.of("editor-fold", "activeIn", "no" + "such" + "marker"));
+        assertTrue(sut.isCandidate(source, Set.of("editor-fold")));
+        assertTrue(sut.isCandidate(source, Set.of("no" + "such" + "marker", "activeIn")));
+        assertFalse(sut.isCandidate(source, Set.of("no" + "such" + "marker")));
+        assertFalse(sut.isCandidate(source, Set.of("not indexed")));
+        assertTrue(sut.isCandidate(source, null));
+        assertFalse(source.inMemory);
+    }
+
+    @Test
+    @DisplayName("Prefiltering keeps the markdown files with snip segments and drops the files without markers.")
+    void prefilterKeepsMarkdownSnips() throws Exception {
+        final var dir = Files.createTempDirectory("geci");
+        final var files = List.of(
+            Files.writeString(dir.resolve("README.md"), "# Title\n<!-- snip sample -->\n<!-- end snip -->\n"),
+            Files.writeString(dir.resolve("Snippet.java"), "class Snippet {\n// snip" + "pet sample\n// end snip" + "pet\n}\n"),
+            Files.writeString(dir.resolve("Plain.java"), "class Plain {}\n"));
+        try {
+            final var recorder = new Recorder();
+            new Geci().source(dir.toString()).prefilter().register(recorder).generate();
+            assertEquals(Set.of("README.md", "Snippet.java"), recorder.names);
+        } finally {
+            for (final var file : files) {
+                Files.delete(file);
+            }
+            Files.delete(dir);
+        }
+    }
+
+    private static class Recorder implements Generator, Distant {
+        private final Set<String> names = new HashSet<>();
+
+        @Override
+        public void process(Source source) {
+            names.add(new java.io.File(source.getAbsoluteFile()).getName());
+        }
+    }
+}
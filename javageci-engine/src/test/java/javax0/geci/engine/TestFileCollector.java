@@ -7,13 +7,21 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 import static javax0.geci.api.Source.Predicates.exists;
 import static javax0.geci.api.Source.Set.set;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 public class TestFileCollector {
     @Test
@@ -22,11 +30,111 @@ public class TestFileCollector {
         final Map<Source.Set, javax0.geci.api.DirectoryLocator> sources = JVM8Tools.asMap(set(),new DirectoryLocator(exists(),new String[]{"src/test/java/javax0/geci/engine"}));
         var collector = new FileCollector(sources);
         collector.collect(null,null, Collections.emptySet());
-        assertEquals(4, collector.getSources().size());
+        assertEquals(9, collector.getSources().size());
         for( final var source : collector.getSources() ){
             if( source.getKlassName().endsWith("TestFileCollector"))
                 return;
         }
         Assertions.fail("TestFileCollector was not found by the collector");
     }
+
+    @Test
+    @DisplayName("Ignored directories are skipped as a whole, files in other directories are collected.")
+    void ignoredDirectoriesAreSkipped() {
+        final Map<Source.Set, javax0.geci.api.DirectoryLocator> sources = JVM8Tools.asMap(set(), new DirectoryLocator(exists(), new String[]{"src/test/java/javax0/geci"}));
+        var collector = new FileCollector(sources);
+        collector.collect(null, Set.of(new Geci.PatternPredicate("/engine/")), Collections.emptySet());
+        assertFalse(collector.getSources().isEmpty());
+        for (final var source : collector.getSources()) {
+            assertFalse(source.getAbsoluteFile().contains("/engine/"));
+        }
+    }
+
+    @Test
+    @DisplayName("The files under an ignored directory are never visited, sequential or parallel.")
+    void ignoredDirectoriesAreNotEntered() throws IOException {
+        final var dir = Files.createTempDirectory("geci");
+        final var kept = Files.createDirectory(dir.resolve("kept"));
+        final var ignored = Files.createDirectory(dir.resolve("ignored"));
+        final var deep = Files.createDirectory(ignored.resolve("deep"));
+        final var files = List.of(
+            Files.writeString(kept.resolve("A.java"), "class A {}"),
+            Files.writeString(ignored.resolve("B.java"), "class B {}"),
+            Files.writeString(deep.resolve("C.java"), "class C {}"));
+        final Map<Source.Set, javax0.geci.api.DirectoryLocator> sources = JVM8Tools.asMap(set(), new DirectoryLocator(exists(), new String[]{dir.toString()}));
+        try {
+            for (final var warm : List.of(false, true)) {
+                for (final var parallel : List.of(false, true)) {
+                    final var visited = ConcurrentHashMap.<Path>newKeySet();
+                    final Predicate<Path> countingOnly = path -> visited.add(path.toAbsolutePath()) || true;
+                    var collector = new FileCollector(sources);
+                    if (parallel) {
+                        collector.parallel();
+                    }
+                    if (warm) {
+                        collector.warmCache(WarmCache.INSTANCE);
+                    }
+                    collector.collect(Set.of(countingOnly), Set.of(new Geci.PatternPredicate("/ignored/")), Collections.emptySet());
+                    assertEquals(1, collector.getSources().size());
+                    assertEquals(Set.of(files.get(0).toAbsolutePath()), visited, "warm=" + warm + ", parallel=" + parallel);
+                }
+            }
+        } finally {
+            WarmCache.INSTANCE.clear();
+            for (final var file : files) {
+                Files.delete(file);
+            }
+            Files.delete(deep);
+            Files.delete(ignored);
+            Files.delete(kept);
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel collection finds the same files as the sequential one.")
+    void parallelCollectsTheSameFiles() {
+        final Map<Source.Set, javax0.geci.api.DirectoryLocator> sources = JVM8Tools.asMap(set(), new DirectoryLocator(exists(), new String[]{"src"}));
+        var sequential = new FileCollector(sources);
+        sequential.collect(null, Set.of(new Geci.PatternPredicate("\\.class$")), Collections.emptySet());
+        var parallel = new FileCollector(sources);
+        parallel.parallel();
+        parallel.collect(null, Set.of(new Geci.PatternPredicate("\\.class$")), Collections.emptySet());
+        assertEquals(sequential.getSources(), parallel.getSources());
+    }
+
+    @Test
+    @DisplayName("Warm cache collection notices the new files and the modified content.")
+    void warmCacheNoticesChanges() throws IOException {
+        final var dir = Files.createTempDirectory("geci");
+        final var sub = Files.createDirectory(dir.resolve("sub"));
+        final var first = Files.writeString(sub.resolve("A.java"), "class A {}");
+        final Map<Source.Set, javax0.geci.api.DirectoryLocator> sources = JVM8Tools.asMap(set(), new DirectoryLocator(exists(), new String[]{dir.toString()}));
+        try {
+            var collector = new FileCollector(sources);
+            collector.warmCache(WarmCache.INSTANCE);
+            collector.collect(null, null, Collections.emptySet());
+            assertEquals(1, collector.getSources().size());
+            assertEquals(List.of("class A {}"), collector.getSources().iterator().next().getLines());
+
+            Files.writeString(first, "class A {\n}");
+            final var second = Files.writeString(sub.resolve("B.java"), "class B {}");
+            Files.setLastModifiedTime(sub, FileTime.fromMillis(Files.getLastModifiedTime(sub).toMillis() + 2000));
+            collector = new FileCollector(sources);
+            collector.warmCache(WarmCache.INSTANCE);
+            collector.collect(null, null, Collections.emptySet());
+            assertEquals(2, collector.getSources().size());
+            for (final var source : collector.getSources()) {
+                if (source.getAbsoluteFile().endsWith("A.java")) {
+                    assertEquals(List.of("class A {", "}"), source.getLines());
+                }
+            }
+            Files.delete(second);
+        } finally {
+            Files.delete(first);
+            Files.delete(sub);
+            Files.delete(dir);
+            WarmCache.INSTANCE.clear();
+        }
+    }
 }
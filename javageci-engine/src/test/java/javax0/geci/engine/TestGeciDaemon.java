@@ -0,0 +1,318 @@
+package javax0.geci.engine;
+
+import javax0.geci.api.Distant;
+import javax0.geci.api.GeciException;
+import javax0.geci.api.Generator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class TestGeciDaemon {
+
+    @Test
+    @DisplayName("The daemon generates the code at start and again when the source changes")
+    void regeneratesChangedSource() throws Exception {
+        final var dir = Files.createTempDirectory("geci");
+        final var file = dir.resolve("A.java");
+        Files.writeString(file, source(1, ""));
+        final var daemon = new GeciDaemon(() -> new Geci().source(dir.toString()).log(Geci.NONE).register(new Counting()));
+        final var thread = start(daemon);
+        try {
+            waitFor(file, source(1, "    int v1;\n"));
+            Files.writeString(file, source(2, ""));
+            waitFor(file, source(2, "    int v2;\n"));
+            Assertions.assertTrue(daemon.runs() >= 2);
+        } finally {
+            daemon.close();
+            thread.join(10_000);
+            Files.delete(file);
+            Files.delete(dir);
+            Geci.clearWarmCache();
+        }
+    }
+
+    @Test
+    @DisplayName("Editing a source that needs no generated code is not a failure")
+    void editingSourceWithoutSegmentsIsNotFailure() throws Exception {
+        final var dir = Files.createTempDirectory("geci");
+        final var file = dir.resolve("A.java");
+        final var plain = dir.resolve("B.java");
+        Files.writeString(file, source(1, ""));
+        Files.writeString(plain, "class B {}\n");
+        final var daemon = new GeciDaemon(() -> new Geci().source(dir.toString()).log(Geci.NONE).register(new Counting()));
+        final var thread = start(daemon);
+        try {
+            waitFor(file, source(1, "    int v1;\n"));
+            final var runs = daemon.runs();
+            Files.writeString(plain, "class B { }\n");
+            waitForRuns(daemon, runs + 1);
+            Files.writeString(file, source(2, ""));
+            waitFor(file, source(2, "    int v2;\n"));
+            Assertions.assertEquals(0, daemon.failures());
+        } finally {
+            daemon.close();
+            thread.join(10_000);
+            Files.delete(file);
+            Files.delete(plain);
+            Files.delete(dir);
+            Geci.clearWarmCache();
+        }
+    }
+
+    @Test
+    @DisplayName("Changing a source that others are generated from regenerates the other sources")
+    void regeneratesSourcesUsingTheChangedOne() throws Exception {
+        final var dir = Files.createTempDirectory("geci");
+        final var snippet = dir.resolve("A.java");
+        final var file = dir.resolve("B.java");
+        Files.writeString(snippet, "// 1\nclass A {}\n");
+        Files.writeString(file, source(0, ""));
+        final var daemon = new GeciDaemon(() -> {
+            final var snippets = new ConcurrentHashMap<String, String>();
+            return new Geci().source(dir.toString()).log(Geci.NONE)
+                .register(new SnippetCollecting(snippets), new SnippetInserting(snippets));
+        });
+        final var thread = start(daemon);
+        try {
+            waitFor(file, source(0, "    int v1;\n"));
+            Files.writeString(snippet, "// 2\nclass A {}\n");
+            waitFor(file, source(0, "    int v2;\n"));
+            Assertions.assertEquals(0, daemon.failures());
+        } finally {
+            daemon.close();
+            thread.join(10_000);
+            Files.delete(snippet);
+            Files.delete(file);
+            Files.delete(dir);
+            Geci.clearWarmCache();
+        }
+    }
+
+    @Test
+    @DisplayName("Deleting a source regenerates the sources")
+    void regeneratesWhenSourceIsDeleted() throws Exception {
+        final var dir = Files.createTempDirectory("geci");
+        final var file = dir.resolve("A.java");
+        final var other = dir.resolve("B.java");
+        Files.writeString(file, source(0, ""));
+        Files.writeString(other, "class B {}\n");
+        final var daemon = new GeciDaemon(() -> {
+            final var names = ConcurrentHashMap.<String>newKeySet();
+            return new Geci().source(dir.toString()).log(Geci.NONE)
+                .register(new NameCollecting(names), new NameCounting(names));
+        });
+        final var thread = start(daemon);
+        try {
+            waitFor(file, source(0, "    int v2;\n"));
+            Files.delete(other);
+            waitFor(file, source(0, "    int v1;\n"));
+            Assertions.assertEquals(0, daemon.failures());
+        } finally {
+            daemon.close();
+            thread.join(10_000);
+            Files.delete(file);
+            Files.delete(dir);
+            Geci.clearWarmCache();
+        }
+    }
+
+    @Test
+    @DisplayName("Editing a file in an ignored directory does not start a run")
+    void ignoredDirectoryIsNotWatched() throws Exception {
+        final var dir = Files.createTempDirectory("geci");
+        final var file = dir.resolve("A.java");
+        final var ignoredDir = Files.createDirectory(dir.resolve("ignored"));
+        final var ignored = ignoredDir.resolve("B.java");
+        Files.writeString(file, source(1, ""));
+        Files.writeString(ignored, "class B {}\n");
+        final var daemon = new GeciDaemon(() -> new Geci().source(dir.toString()).ignore("/ignored/").log(Geci.NONE).register(new Counting()));
+        final var thread = start(daemon);
+        try {
+            waitFor(file, source(1, "    int v1;\n"));
+            final var runs = daemon.runs();
+            Files.writeString(ignored, "class B { }\n");
+            Thread.sleep(500);
+            Files.writeString(file, source(2, ""));
+            waitFor(file, source(2, "    int v2;\n"));
+            Assertions.assertEquals(runs + 1, daemon.runs());
+        } finally {
+            daemon.close();
+            thread.join(10_000);
+            Files.delete(file);
+            Files.delete(ignored);
+            Files.delete(ignoredDir);
+            Files.delete(dir);
+            Geci.clearWarmCache();
+        }
+    }
+
+    private static Thread start(GeciDaemon daemon) {
+        final var thread = new Thread(() -> {
+            try {
+                daemon.run();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static String source(int value, String generated) {
+        return "// " + value + "\n" +
+            "class A {\n" +
+            "    //<editor-fold id=\"v\">\n" +
+            generated +
+            "    //</editor-fold>\n" +
+            "}\n";
+    }
+
+    private static void waitFor(Path file, String expected) throws Exception {
+        final var timeout = System.currentTimeMillis() + 20_000;
+        while (System.currentTimeMillis() < timeout) {
+            if (expected.equals(Files.readString(file))) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        Assertions.assertEquals(expected, Files.readString(file));
+    }
+
+    private static void waitForRuns(GeciDaemon daemon, int runs) throws Exception {
+        final var timeout = System.currentTimeMillis() + 20_000;
+        while (System.currentTimeMillis() < timeout && daemon.runs() < runs) {
+            Thread.sleep(20);
+        }
+        Assertions.assertTrue(daemon.runs() >= runs);
+    }
+
+    private static class Counting implements Generator {
+        @Override
+        public void process(javax0.geci.api.Source source) {
+            try {
+                final var segment = source.open("v");
+                if (segment != null) {
+                    final var value = source.getLines().get(0).substring(3);
+                    segment.write("int v" + value + ";");
+                }
+            } catch (IOException e) {
+                throw new GeciException("Cannot open segment", e);
+            }
+        }
+    }
+
+    private static class SnippetCollecting implements Generator, Distant {
+        private final Map<String, String> snippets;
+
+        private SnippetCollecting(Map<String, String> snippets) {
+            this.snippets = snippets;
+        }
+
+        @Override
+        public void process(javax0.geci.api.Source source) {
+            if (source.getAbsoluteFile().endsWith("A.java")) {
+                snippets.put("v", source.getLines().get(0).substring(3));
+            }
+        }
+
+        @Override
+        public int phases() {
+            return 2;
+        }
+
+        @Override
+        public boolean activeIn(int phase) {
+            return phase == 0;
+        }
+    }
+
+    private static class NameCollecting implements Generator, Distant {
+        private final Set<String> names;
+
+        private NameCollecting(Set<String> names) {
+            this.names = names;
+        }
+
+        @Override
+        public void process(javax0.geci.api.Source source) {
+            names.add(source.getAbsoluteFile());
+        }
+
+        @Override
+        public int phases() {
+            return 2;
+        }
+
+        @Override
+        public boolean activeIn(int phase) {
+            return phase == 0;
+        }
+    }
+
+    private static class NameCounting implements Generator {
+        private final Set<String> names;
+
+        private NameCounting(Set<String> names) {
+            this.names = names;
+        }
+
+        @Override
+        public void process(javax0.geci.api.Source source) {
+            try {
+                final var segment = source.open("v");
+                if (segment != null) {
+                    segment.write("int v" + names.size() + ";");
+                }
+            } catch (IOException e) {
+                throw new GeciException("Cannot open segment", e);
+            }
+        }
+
+        @Override
+        public int phases() {
+            return 2;
+        }
+
+        @Override
+        public boolean activeIn(int phase) {
+            return phase == 1;
+        }
+    }
+
+    private static class SnippetInserting implements Generator {
+        private final Map<String, String> snippets;
+
+        private SnippetInserting(Map<String, String> snippets) {
+            this.snippets = snippets;
+        }
+
+        @Override
+        public void process(javax0.geci.api.Source source) {
+            try {
+                final var segment = source.open("v");
+                if (segment != null) {
+                    segment.write("int v" + snippets.get("v") + ";");
+                }
+            } catch (IOException e) {
+                throw new GeciException("Cannot open segment", e);
+            }
+        }
+
+        @Override
+        public int phases() {
+            return 2;
+        }
+
+        @Override
+        public boolean activeIn(int phase) {
+            return phase == 1;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package javax0.geci.engine;
+
+import javax0.geci.api.Generator;
+import javax0.geci.api.Source;
+import javax0.geci.tools.JVM8Tools;
+import javax0.geci.util.DirectoryLocator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static javax0.geci.api.Source.Predicates.exists;
+import static javax0.geci.api.Source.Set.set;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestGeneratorIndex {
+
+    @Test
+    @DisplayName("Sources are routed only to the generators that are interested in them.")
+    void routesSourcesToInterestedGenerators() {
+        final var mySet = set("mySet");
+        final Map<Source.Set, javax0.geci.api.DirectoryLocator> sources = JVM8Tools.asMap(mySet, new DirectoryLocator(exists(), new String[]{"src/test/java/javax0/geci/engine"}));
+        final var collector = new FileCollector(sources);
+        collector.collect(Set.of(new Geci.PatternPredicate("TestPhasedExecution\\.java$")), null, Collections.emptySet());
+        final var source = collector.getSources().iterator().next();
+
+        final var all = new Interested(null, null, null);
+        final var java = new Interested(Set.of("java"), null, null);
+        final var markdown = new Interested(Set.of(".md"), null, null);
+        final var inMySet = new Interested(null, Set.of(mySet), null);
+        final var inOtherSet = new Interested(null, Set.of(set("otherSet")), null);
+        final var withMnemonic = new Interested(null, null, Set.of("touchit"));
+        final var withOtherMnemonic = new Interested(null, null, Set.of("no" + "such" + "mnemonic"));
+        final var sut = new GeneratorIndex(List.of(all, java, markdown, inMySet, inOtherSet, withMnemonic, withOtherMnemonic), false);
+
+        assertEquals(List.of(all, java, inMySet, withMnemonic), sut.generatorsFor(source));
+    }
+
+    private static class Interested implements Generator {
+        private final Set<String> extensions;
+        private final Set<Source.Set> sets;
+        private final Set<String> mnemonics;
+
+        private Interested(Set<String> extensions, Set<Source.Set> sets, Set<String> mnemonics) {
+            this.extensions = extensions;
+            this.sets = sets;
+            this.mnemonics = mnemonics;
+        }
+
+        @Override
+        public void process(Source source) {
+        }
+
+        @Override
+        public Set<String> extensions() {
+            return extensions;
+        }
+
+        @Override
+        public Set<String> mnemonics() {
+            return mnemonics;
+        }
+
+        @Override
+        public Set<Source.Set> sourceSets() {
+            return sets;
+        }
+    }
+}
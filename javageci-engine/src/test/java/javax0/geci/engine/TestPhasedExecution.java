@@ -1,5 +1,6 @@
 package javax0.geci.engine;
 
+import javax0.geci.api.BatchGenerator;
 import javax0.geci.api.GeciException;
 import javax0.geci.api.Generator;
 import org.junit.jupiter.api.Assertions;
@@ -7,9 +8,14 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 
 public class TestPhasedExecution {
     private final StringBuilder testString = new StringBuilder();
+    private final List<String> batchFiles = new ArrayList<>();
 
     @Test
     @DisplayName("Test that generators are invoked only for the phases that needed")
@@ -24,6 +30,44 @@ public class TestPhasedExecution {
         );
     }
 
+    @Test
+    @DisplayName("Test that batch generators are invoked once in each phase with all the sources")
+    void testBatchExecution() throws Exception {
+        testString.setLength(0);
+        new Geci().only("TestPhasedExecution.java", "TestSource.java")
+                .register(new C()).generate();
+        Assertions.assertEquals(
+                "Phase 0 generator 'C' 2 sources\n" +
+                        "Phase 1 generator 'C' 2 sources\n", testString.toString()
+        );
+    }
+
+    @Test
+    @DisplayName("Test that batch generators get the sources in the order of the file names")
+    void testBatchOrder() throws Exception {
+        batchFiles.clear();
+        new Geci().only("TestPhasedExecution.java", "TestSource.java", "TestSegment.java")
+                .register(new C()).generate();
+        Assertions.assertEquals(6, batchFiles.size());
+        final var firstPhase = batchFiles.subList(0, 3);
+        final var sorted = new ArrayList<>(firstPhase);
+        Collections.sort(sorted);
+        Assertions.assertEquals(sorted, firstPhase);
+        Assertions.assertEquals(firstPhase, batchFiles.subList(3, 6));
+    }
+
+    @Test
+    @DisplayName("Test that generators declaring dependencies are run after the generators they depend on")
+    void testDependencyScheduling() throws Exception {
+        testString.setLength(0);
+        new Geci().only("TestPhasedExecution.java")
+                .register(new Consumer(), new Producer()).generate();
+        Assertions.assertEquals(
+                "generator 'Producer'\n" +
+                        "generator 'Consumer'\n", testString.toString()
+        );
+    }
+
     //<editor-fold id="touchit">
     //</editor-fold>
     class A implements Generator {
@@ -78,4 +122,65 @@ public class TestPhasedExecution {
             return 2;
         }
     }
+
+    class C extends A implements BatchGenerator {
+
+        @Override
+        public void processAll(List<javax0.geci.api.Source> sources) {
+            testString.append("Phase ")
+                    .append(actualPhase)
+                    .append(" generator '")
+                    .append(this.getClass().getSimpleName())
+                    .append("' ")
+                    .append(sources.size())
+                    .append(" sources\n");
+            for (final var source : sources) {
+                batchFiles.add(source.getAbsoluteFile());
+                try {
+                    source.init("touchit");
+                } catch (IOException e) {
+                    throw new GeciException("Cannot touch it!");
+                }
+            }
+        }
+
+        @Override
+        public boolean activeIn(int phase) {
+            actualPhase = phase;
+            return phase < 2;
+        }
+    }
+
+    class Producer implements Generator {
+
+        @Override
+        public void process(javax0.geci.api.Source source) {
+            try {
+                source.init("touchit");
+            } catch (IOException e) {
+                throw new GeciException("Cannot touch it!");
+            }
+            testString.append("generator '")
+                    .append(this.getClass().getSimpleName())
+                    .append("'\n");
+        }
+
+        @Override
+        public Set<String> produces() {
+            return Set.of("data");
+        }
+    }
+
+    class Consumer extends Producer {
+
+        @Override
+        public Set<String> produces() {
+            return Set.of();
+        }
+
+        @Override
+        public Set<String> consumes() {
+            return Set.of("data");
+        }
+    }
 }
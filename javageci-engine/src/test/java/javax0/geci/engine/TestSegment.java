@@ -0,0 +1,110 @@
+package javax0.geci.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestSegment {
+
+    @Test
+    public void testIndentationAndFormatting() {
+        final var sut = new Segment(4);
+        sut.write_r("class {{name}} {", "ignored")
+            .write("int %s = %d;", "a", 1)
+            .write("   ")
+            .write("100% {{name}}")
+            .write("first\nsecond")
+            .write_l("}");
+        assertEquals(List.of(
+            "    class {{name}} {",
+            "        int a = 1;",
+            "",
+            "        100% {{name}}",
+            "        first",
+            "        second",
+            "    }"), sut.lines);
+    }
+
+    @Test
+    public void testParameterResolution() {
+        final var sut = new Segment(0);
+        sut.param("name", "Xyz");
+        sut.write_r("class {{name}} {")
+            .write("// %s of {{name}}", "copy")
+            .write("no placeholder")
+            .write_l("}");
+        assertEquals(List.of(
+            "class Xyz {",
+            "    // copy of Xyz",
+            "    no placeholder",
+            "}"), sut.lines);
+    }
+
+    @Test
+    public void testMultiLineTemplateIsResolvedLineByLine() {
+        final var sut = new Segment(4);
+        final var template = "a={{a}}\r\n{{empty}}\n{{multi}};";
+        sut.param("a", "1", "empty", "", "multi", "x\ny");
+        sut.write(template);
+        sut.param("a", "2");
+        sut.write(template);
+        assertEquals(List.of(
+            "    a=1", "", "    x", "    y;",
+            "    a=2", "", "    x", "    y;"), sut.lines);
+    }
+
+    @Test
+    public void testParamScopeRestoresPreviousValues() {
+        final var sut = new Segment(0);
+        sut.param("name", "Xyz");
+        try (final var scope = sut.paramScope("name", "Abc", "member", "m")) {
+            sut.write("{{name}}.{{member}}");
+        }
+        sut.write("{{name}}.{{member}}");
+        assertEquals(List.of("Abc.m", "Xyz.{{member}}"), sut.lines);
+        assertEquals(Set.of("name"), sut.paramKeySet());
+    }
+
+    @Test
+    public void testParamScopeRestoresParametersSetInside() {
+        final var sut = new Segment(0);
+        sut.param("name", "Xyz");
+        try (final var outer = sut.paramScope("member", "m")) {
+            try (final var inner = sut.paramScope()) {
+                sut.param("name", "Abc", "extra", "e");
+                sut.write("{{name}}.{{member}}.{{extra}}");
+            }
+            sut.param("other", "o");
+            sut.write("{{name}}.{{member}}.{{extra}}.{{other}}");
+        }
+        assertEquals(List.of("Abc.m.e", "Xyz.m.{{extra}}.o"), sut.lines);
+        assertEquals(Set.of("name"), sut.paramKeySet());
+    }
+
+    @Test
+    public void testAppendKeepsTheLinesOfTheFork() {
+        final var sut = new Segment(4);
+        sut.param("x", "parent");
+        final var fork = sut.fork();
+        for (final var value : List.of("a", "{{x}}")) {
+            fork.param("value", value);
+            fork.write("v={{value}}");
+        }
+        fork.write("");
+        sut.append(fork);
+        sut.write("{{value}}.{{x}}");
+        assertEquals(List.of("    v=a", "    v={{x}}", "", "    {{x}}.parent"), sut.lines);
+    }
+
+    @Test
+    public void testDeepIndentation() {
+        final var sut = new Segment(100);
+        sut.write("x");
+        sut.setPreface("pre");
+        assertEquals(" ".repeat(100) + "x", sut.lines.get(0));
+        assertEquals(" ".repeat(100) + "pre", sut.preface.get(0));
+    }
+}
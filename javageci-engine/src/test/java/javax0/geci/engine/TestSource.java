@@ -4,11 +4,14 @@ import javax0.geci.tools.JVM8Tools;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestSource {
 
@@ -50,4 +53,66 @@ public class TestSource {
                 "this is also unharmed\n" +
                 "//</editor-fold>", String.join("\n", sut.lines));
     }
+
+    @Test
+    public void testConsolidateMultipleSegments() throws IOException {
+        final var collector = new FileCollector(JVM8Tools.asMap());
+        var sut = new Source(collector, "ddd", Paths.get("xyz.java"));
+        sut.inMemory = true;
+        sut.lines.addAll(Arrays.asList(
+                "class Xyz {",
+                "    // <editor-fold id=\"a\">",
+                "    old a",
+                "    //</editor-fold>",
+                "    keep this",
+                "    // <editor-fold id=\"b\">",
+                "    //</editor-fold>",
+                "}"
+        ));
+        sut.allowDefaultSegment();
+        sut.open("a").write("new a 1").write("new a 2");
+        sut.open("b").write("new b");
+        sut.open("c").write("new c");
+        sut.open("d").write("new d");
+        sut.consolidate();
+        assertEquals("class Xyz {\n" +
+                "    // <editor-fold id=\"a\">\n" +
+                "    new a 1\n" +
+                "    new a 2\n" +
+                "    //</editor-fold>\n" +
+                "    keep this\n" +
+                "    // <editor-fold id=\"b\">\n" +
+                "    new b\n" +
+                "    //</editor-fold>\n" +
+                "    //<editor-fold id=\"c\">\n" +
+                "    new c\n" +
+                "    //</editor-fold>\n" +
+                "    //<editor-fold id=\"d\">\n" +
+                "    new d\n" +
+                "    //</editor-fold>\n" +
+                "}", String.join("\n", sut.lines));
+    }
+
+    @Test
+    public void testSaveWritesOnlyChangedContent() throws IOException {
+        final var dir = Files.createTempDirectory("geci");
+        final var file = dir.resolve("xyz.java");
+        try {
+            final var collector = new FileCollector(JVM8Tools.asMap());
+            var sut = new Source(collector, dir.toString(), file);
+            sut.lines.addAll(Arrays.asList("a", "b"));
+            assertTrue(sut.save());
+            assertEquals(Arrays.asList("a", "b"), Files.readAllLines(file));
+            assertFalse(sut.save());
+            sut.lines.add("c");
+            assertTrue(sut.save());
+            assertEquals(Arrays.asList("a", "b", "c"), Files.readAllLines(file));
+            try (final var files = Files.list(dir)) {
+                assertEquals(1, files.count());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(dir);
+        }
+    }
 }
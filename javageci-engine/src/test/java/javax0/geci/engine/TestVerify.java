@@ -0,0 +1,129 @@
+package javax0.geci.engine;
+
+import javax0.geci.api.GeciException;
+import javax0.geci.api.Generator;
+import javax0.geci.api.GlobalGenerator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+public class TestVerify {
+    private static final String THIS_FILE = "src/test/java/javax0/geci/engine/TestVerify.java";
+
+    @Test
+    @DisplayName("Verification reports the out of date source and the segment but does not write the file")
+    void testVerifyReportsChange() throws Exception {
+        final var before = Files.readAllBytes(Paths.get(THIS_FILE));
+        final var geci = new Geci();
+        Assertions.assertTrue(geci.only("TestVerify.java")
+            .log(Geci.NONE)
+            .register(new Writing("private int notInTheSource;")).verify());
+        Assertions.assertTrue(geci.failed().contains("TestVerify.java segment touchit"), geci.failed());
+        Assertions.assertArrayEquals(before, Files.readAllBytes(Paths.get(THIS_FILE)));
+    }
+
+    @Test
+    @DisplayName("Verification passes when the generated code is up to date")
+    void testVerifyUpToDate() throws Exception {
+        final var geci = new Geci();
+        Assertions.assertFalse(geci.only("TestVerify.java")
+            .register(new Writing(null)).verify(), geci.failed());
+    }
+
+    @Test
+    @DisplayName("Verification skips the later phases and the global generators once the source is out of date")
+    void testVerifyStopsAfterThePhase() throws Exception {
+        final var later = new Recording(1);
+        final var global = new RecordingGlobal();
+        final var geci = new Geci();
+        Assertions.assertTrue(geci.only("TestVerify.java")
+            .log(Geci.NONE)
+            .register(new Writing("private int notInTheSource;"), later, global).verify());
+        Assertions.assertFalse(later.ran);
+        Assertions.assertFalse(global.ran);
+    }
+
+    @Test
+    @DisplayName("Verification runs all the phases and the global generators when the sources are up to date")
+    void testVerifyRunsAllPhases() throws Exception {
+        final var later = new Recording(1);
+        final var global = new RecordingGlobal();
+        final var geci = new Geci();
+        Assertions.assertFalse(geci.only("TestVerify.java")
+            .register(new Writing(null), later, global).verify(), geci.failed());
+        Assertions.assertTrue(later.ran);
+        Assertions.assertTrue(global.ran);
+    }
+
+    @Test
+    @DisplayName("Repeated verification does not report the result of the previous call")
+    void testVerifyTwice() throws Exception {
+        final var geci = new Geci();
+        geci.only("TestVerify.java")
+            .log(Geci.NONE)
+            .register(new Writing("private int notInTheSource;"));
+        Assertions.assertTrue(geci.verify());
+        Assertions.assertTrue(geci.verify());
+        final var failed = geci.failed();
+        Assertions.assertEquals(failed.indexOf("TestVerify.java"), failed.lastIndexOf("TestVerify.java"), failed);
+    }
+
+    //<editor-fold id="touchit">
+    //</editor-fold>
+    private static class Writing implements Generator {
+        private final String line;
+
+        private Writing(String line) {
+            this.line = line;
+        }
+
+        @Override
+        public void process(javax0.geci.api.Source source) {
+            try {
+                final var segment = source.open("touchit");
+                if (line != null) {
+                    segment.write(line);
+                }
+            } catch (IOException e) {
+                throw new GeciException("Cannot touch it!");
+            }
+        }
+    }
+
+    private static class Recording implements Generator {
+        private final int phase;
+        private boolean ran = false;
+
+        private Recording(int phase) {
+            this.phase = phase;
+        }
+
+        @Override
+        public void process(javax0.geci.api.Source source) {
+            ran = true;
+        }
+
+        @Override
+        public int phases() {
+            return phase + 1;
+        }
+
+        @Override
+        public boolean activeIn(int phase) {
+            return phase == this.phase;
+        }
+    }
+
+    private static class RecordingGlobal implements GlobalGenerator {
+        private boolean ran = false;
+
+        @Override
+        public void process() {
+            ran = true;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package javax0.geci.util;
+
+import javax0.geci.api.SegmentSplitHelper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TestScanningJavaSegmentSplitHelper {
+    private final SegmentSplitHelper regex = new JavaSegmentSplitHelper();
+    private final SegmentSplitHelper scanner = new ScanningJavaSegmentSplitHelper();
+
+    private static final List<String> LINES = List.of(
+        "",
+        "   ",
+        "class A {",
+        "}",
+        "    }",
+        "\t}   ",
+        "    } // end of class",
+        "    }// end of class\r",
+        "    }// end\n of class",
+        "    }// end\n    ",
+        "    } ;",
+        "    }}",
+        "    //<editor-fold id=\"a\">",
+        "    // <editor-fold id=\"a\" desc=\"the description\">   ",
+        "    //  <  editor-fold  id=\"a\"   >",
+        "//<editor-fold>",
+        "//<editor-fold >",
+        "//<editor-fold\t>",
+        "//<editor-fold id=\"a\"> >",
+        "//<editor-fold id=\"a\"> x",
+        "//<editor-fold id=\"a\n\">",
+        "//<editor-fold id=\"a \">",
+        "//<editor-foldid=\"a\">",
+        "/ /<editor-fold id=\"a\">",
+        "x //<editor-fold id=\"a\">",
+        "    //</editor-fold>",
+        "    // </ editor-fold >   ",
+        "    //< / editor-fold>",
+        "    //</editor-fold> x",
+        "    //</editor-folds>",
+        "    //</editor-fold",
+        "    //",
+        "    //<",
+        "    //</",
+        "    // just a comment",
+        "\u000B\f//<editor-fold id=\"a\">\r"
+    );
+
+    @Test
+    @DisplayName("The scanner matches the same lines as the regular expressions")
+    void sameAsRegex() {
+        for (final var line : LINES) {
+            assertSame(line);
+        }
+    }
+
+    @Test
+    @DisplayName("The scanner matches the same random lines as the regular expressions")
+    void sameAsRegexRandom() {
+        final var pieces = new String[]{" ", "\t", "\n", "\r", "\u0085", "//", "/", "<", ">", "}", "editor-fold",
+            "id=\"a\"", "x", "\u000B"};
+        final var random = new Random(20191019L);
+        final var lines = new ArrayList<String>();
+        for (int i = 0; i < 20_000; i++) {
+            final var sb = new StringBuilder();
+            final var n = random.nextInt(10);
+            for (int j = 0; j < n; j++) {
+                sb.append(pieces[random.nextInt(pieces.length)]);
+            }
+            lines.add(sb.toString());
+        }
+        for (final var line : lines) {
+            assertSame(line);
+        }
+    }
+
+    private void assertSame(String line) {
+        final var expected = regex.match(line);
+        final var actual = scanner.match(line);
+        final var message = "'" + line + "'";
+        Assertions.assertEquals(expected.isSegmentStart(), actual.isSegmentStart(), message);
+        Assertions.assertEquals(expected.isSegmentEnd(), actual.isSegmentEnd(), message);
+        Assertions.assertEquals(expected.isDefaultSegmentEnd(), actual.isDefaultSegmentEnd(), message);
+        Assertions.assertEquals(expected.headerLength(), actual.headerLength(), message);
+        Assertions.assertEquals(expected.tabbing(), actual.tabbing(), message);
+        if (expected.isSegmentStart()) {
+            Assertions.assertEquals(attributes(expected), attributes(actual), message);
+        }
+    }
+
+    private static String attributes(SegmentSplitHelper.Matcher matcher) {
+        try {
+            return matcher.attributes().toString();
+        } catch (RuntimeException e) {
+            return e.getClass().getName() + ":" + e.getMessage();
+        }
+    }
+
+    @Test
+    @DisplayName("The scanner has the same preface and postface as the regex based helper")
+    void sameFaces() {
+        Assertions.assertArrayEquals(regex.getSegmentPreface(), scanner.getSegmentPreface());
+        Assertions.assertArrayEquals(regex.getSegmentPostface(), scanner.getSegmentPostface());
+    }
+}
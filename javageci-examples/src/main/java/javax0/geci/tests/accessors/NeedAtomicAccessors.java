@@ -0,0 +1,168 @@
+package javax0.geci.tests.accessors;
+
+import javax0.geci.annotations.Geci;
+
+import java.util.List;
+
+@Geci("accessor")
+public class NeedAtomicAccessors {
+
+    @Geci("accessor atomic='true'")
+    private volatile int counter;
+    @Geci("accessor atomic='true' only='getter'")
+    private volatile long totalBytes;
+    @Geci("accessor atomic='true'")
+    private volatile String name;
+    @Geci("accessor atomic='true'")
+    private volatile List<String> names;
+    private boolean plain;
+
+    //<editor-fold id="accessor">
+    public void setCounter(int counter){
+        this.counter = counter;
+    }
+
+    public int getCounter(){
+        return counter;
+    }
+
+    private static final java.lang.invoke.VarHandle VH_COUNTER;
+    static {
+        try {
+            VH_COUNTER = java.lang.invoke.MethodHandles.lookup().findVarHandle(NeedAtomicAccessors.class, "counter", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public int getCounterAcquire(){
+        return (int) VH_COUNTER.getAcquire(this);
+    }
+
+    public void setCounterRelease(int counter){
+        VH_COUNTER.setRelease(this, counter);
+    }
+
+    public boolean compareAndSetCounter(int expected, int counter){
+        return VH_COUNTER.compareAndSet(this, expected, counter);
+    }
+
+    public int getAndSetCounter(int counter){
+        return (int) VH_COUNTER.getAndSet(this, counter);
+    }
+
+    public int getAndAddCounter(int delta){
+        return (int) VH_COUNTER.getAndAdd(this, delta);
+    }
+
+    public void setName(String name){
+        this.name = name;
+    }
+
+    public String getName(){
+        return name;
+    }
+
+    private static final java.lang.invoke.VarHandle VH_NAME;
+    static {
+        try {
+            VH_NAME = java.lang.invoke.MethodHandles.lookup().findVarHandle(NeedAtomicAccessors.class, "name", java.lang.String.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public String getNameAcquire(){
+        return (String) VH_NAME.getAcquire(this);
+    }
+
+    public void setNameRelease(String name){
+        VH_NAME.setRelease(this, name);
+    }
+
+    public boolean compareAndSetName(String expected, String name){
+        return VH_NAME.compareAndSet(this, expected, name);
+    }
+
+    public String getAndSetName(String name){
+        return (String) VH_NAME.getAndSet(this, name);
+    }
+
+    public void setNames(java.util.List<String> names){
+        this.names = names;
+    }
+
+    public java.util.List<String> getNames(){
+        return names;
+    }
+
+    private static final java.lang.invoke.VarHandle VH_NAMES;
+    static {
+        try {
+            VH_NAMES = java.lang.invoke.MethodHandles.lookup().findVarHandle(NeedAtomicAccessors.class, "names", java.util.List.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public java.util.List<String> getNamesAcquire(){
+        return (java.util.List<String>) VH_NAMES.getAcquire(this);
+    }
+
+    public void setNamesRelease(java.util.List<String> names){
+        VH_NAMES.setRelease(this, names);
+    }
+
+    public boolean compareAndSetNames(java.util.List<String> expected, java.util.List<String> names){
+        return VH_NAMES.compareAndSet(this, expected, names);
+    }
+
+    @SuppressWarnings("unchecked")
+    public java.util.List<String> getAndSetNames(java.util.List<String> names){
+        return (java.util.List<String>) VH_NAMES.getAndSet(this, names);
+    }
+
+    public void setPlain(boolean plain){
+        this.plain = plain;
+    }
+
+    public boolean getPlain(){
+        return plain;
+    }
+
+    public long getTotalBytes(){
+        return totalBytes;
+    }
+
+    private static final java.lang.invoke.VarHandle VH_TOTAL_BYTES;
+    static {
+        try {
+            VH_TOTAL_BYTES = java.lang.invoke.MethodHandles.lookup().findVarHandle(NeedAtomicAccessors.class, "totalBytes", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public long getTotalBytesAcquire(){
+        return (long) VH_TOTAL_BYTES.getAcquire(this);
+    }
+
+    public void setTotalBytesRelease(long totalBytes){
+        VH_TOTAL_BYTES.setRelease(this, totalBytes);
+    }
+
+    public boolean compareAndSetTotalBytes(long expected, long totalBytes){
+        return VH_TOTAL_BYTES.compareAndSet(this, expected, totalBytes);
+    }
+
+    public long getAndSetTotalBytes(long totalBytes){
+        return (long) VH_TOTAL_BYTES.getAndSet(this, totalBytes);
+    }
+
+    public long getAndAddTotalBytes(long delta){
+        return (long) VH_TOTAL_BYTES.getAndAdd(this, delta);
+    }
+
+    //</editor-fold>
+}
@@ -0,0 +1,131 @@
+package javax0.geci.tests.builder;
+
+import javax0.geci.annotations.Geci;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Geci("builder reusable=true")
+public class ReusableClassToCreateBuilder {
+
+    private int z;
+    private String name = "default";
+    @Geci("builder filter=true")
+    private final ArrayList<String> tags = new ArrayList<>();
+    private List<Integer> numbers;
+
+    public int getZ() {
+        return z;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public List<Integer> getNumbers() {
+        return numbers;
+    }
+
+    //<editor-fold id="builder">
+    @javax0.geci.annotations.Generated("builder")
+    public static ReusableClassToCreateBuilder.Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        @javax0.geci.annotations.Generated("builder")
+        public Builder name(final String x) {
+            this.name = x;
+            this.nameSet = true;
+            return this;
+        }
+
+        @javax0.geci.annotations.Generated("builder")
+        public Builder numbers(final java.util.List x) {
+            this.numbers = x;
+            this.numbersSet = true;
+            return this;
+        }
+
+        @javax0.geci.annotations.Generated("builder")
+        public Builder addNumbers(final Integer x) {
+            addNumbersValues.add(x);
+            return this;
+        }
+
+        @javax0.geci.annotations.Generated("builder")
+        public Builder addTags(final String x) {
+            addTagsValues.add(x);
+            return this;
+        }
+
+        @javax0.geci.annotations.Generated("builder")
+        public Builder z(final int x) {
+            this.z = x;
+            this.zSet = true;
+            return this;
+        }
+
+        @javax0.geci.annotations.Generated("builder")
+        public ReusableClassToCreateBuilder buildInto(final ReusableClassToCreateBuilder target) {
+            if (nameSet) {
+                target.name = name;
+            }
+            if (numbersSet) {
+                target.numbers = numbers;
+            }
+            if (zSet) {
+                target.z = z;
+            }
+            if (!addNumbersValues.isEmpty()) {
+                if( target.numbers == null ) {
+                    throw new IllegalArgumentException("Collection field numbers is null");
+                }
+                for (int i = 0; i < addNumbersValues.size(); i++) {
+                    target.numbers.add(addNumbersValues.get(i));
+                }
+            }
+            if (!addTagsValues.isEmpty()) {
+                if( target.tags == null ) {
+                    throw new IllegalArgumentException("Collection field tags is null");
+                }
+                target.tags.ensureCapacity(target.tags.size() + addTagsValues.size());
+                for (int i = 0; i < addTagsValues.size(); i++) {
+                    target.tags.add(addTagsValues.get(i));
+                }
+            }
+            return target;
+        }
+
+        @javax0.geci.annotations.Generated("builder")
+        public ReusableClassToCreateBuilder build() {
+            return buildInto(new ReusableClassToCreateBuilder());
+        }
+
+        @javax0.geci.annotations.Generated("builder")
+        public Builder reset() {
+            name = null;
+            nameSet = false;
+            numbers = null;
+            numbersSet = false;
+            zSet = false;
+            addNumbersValues.clear();
+            addTagsValues.clear();
+            return this;
+        }
+
+        private String name;
+        private boolean nameSet;
+        private java.util.List numbers;
+        private boolean numbersSet;
+        private int z;
+        private boolean zSet;
+        private final java.util.ArrayList<Integer> addNumbersValues = new java.util.ArrayList<>();
+        private final java.util.ArrayList<String> addTagsValues = new java.util.ArrayList<>();
+    }
+    //</editor-fold>
+}
@@ -0,0 +1,57 @@
+package javax0.geci.tests.cloner;
+
+import javax0.geci.annotations.Geci;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+
+@Geci("cloner deep='true' cloneWith='false' filter='false'")
+public class NeedsDeepCloner {
+    int counter;
+    String name;
+    int[] values;
+    int[][] matrix;
+    NeedsDeepCloner[] children;
+    List<String> list;
+    ArrayList<Integer> arrayList;
+    Map<String, Integer> map;
+    SortedSet<String> sorted;
+    NeedsDeepCloner next;
+    NeedCloner other;
+
+    //<editor-fold id="cloner">
+    @javax0.geci.annotations.Generated("cloner")
+    public NeedsDeepCloner copy() {
+        final var it = new NeedsDeepCloner();
+        copy(it);
+        return it;
+    }
+    protected void copy(NeedsDeepCloner it) {
+
+        it.arrayList = arrayList == null ? null : new java.util.ArrayList<>(arrayList);
+        it.children = children == null ? null : children.clone();
+        if (children != null) {
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] != null) it.children[i] = children[i].copy();
+            }
+        }
+        it.counter = counter;
+        it.list = list == null ? null : new java.util.ArrayList<>(list);
+        it.map = map == null ? null : new java.util.LinkedHashMap<>(map);
+        it.matrix = matrix == null ? null : matrix.clone();
+        if (matrix != null) {
+            for (int i = 0; i < matrix.length; i++) {
+                if (matrix[i] != null) it.matrix[i] = matrix[i].clone();
+            }
+        }
+        it.name = name;
+        it.next = next == null ? null : next.copy();
+        it.other = other == null ? null : other.copy();
+        it.sorted = sorted == null ? null : new java.util.TreeSet<>(sorted);
+        it.values = values == null ? null : values.clone();
+    }
+
+    //</editor-fold>
+}
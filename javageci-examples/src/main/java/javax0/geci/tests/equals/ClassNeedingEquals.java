@@ -29,7 +29,17 @@ public class ClassNeedingEquals {
     @javax0.geci.annotations.Generated("equals")
     @Override
     public int hashCode() {
-        return java.util.Objects.hash(aBoolean, aByte, aDouble, aFloat, aLong, aShort, anInt, h, x);
+        int result = 1;
+        result = 31 * result + Boolean.hashCode(aBoolean);
+        result = 31 * result + Byte.hashCode(aByte);
+        result = 31 * result + Double.hashCode(aDouble);
+        result = 31 * result + Float.hashCode(aFloat);
+        result = 31 * result + Long.hashCode(aLong);
+        result = 31 * result + Short.hashCode(aShort);
+        result = 31 * result + Integer.hashCode(anInt);
+        result = 31 * result + java.util.Objects.hashCode(h);
+        result = 31 * result + java.util.Objects.hashCode(x);
+        return result;
     }
     @javax0.geci.annotations.Generated("equals")
     @Override
@@ -0,0 +1,50 @@
+package javax0.geci.tests.equals;
+
+import javax0.geci.annotations.Geci;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Geci("equals costOrder='yes' useObjects='true'")
+public class ClassNeedingOrderedEquals {
+
+    private List<String> aList;
+    private String aString;
+    private int anInt;
+    private TimeUnit aUnit;
+    private Integer anInteger;
+    private long[] anArray;
+    private Object anObject;
+
+    //<editor-fold id="equals">
+    @javax0.geci.annotations.Generated("equals")
+    @Override
+    public int hashCode() {
+        int result = 1;
+        result = 31 * result + java.util.Objects.hashCode(aList);
+        result = 31 * result + java.util.Objects.hashCode(aString);
+        result = 31 * result + java.util.Objects.hashCode(aUnit);
+        result = 31 * result + java.util.Arrays.hashCode(anArray);
+        result = 31 * result + Integer.hashCode(anInt);
+        result = 31 * result + java.util.Objects.hashCode(anInteger);
+        result = 31 * result + java.util.Objects.hashCode(anObject);
+        return result;
+    }
+    @javax0.geci.annotations.Generated("equals")
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ClassNeedingOrderedEquals that = (ClassNeedingOrderedEquals) o;
+        if (!java.util.Objects.equals(aUnit, that.aUnit)) return false;
+        if (anInt != that.anInt) return false;
+        if (!java.util.Objects.equals(aString, that.aString)) return false;
+        if (!java.util.Objects.equals(anInteger, that.anInteger)) return false;
+        if (!java.util.Objects.equals(anObject, that.anObject)) return false;
+        if (!java.util.Objects.equals(aList, that.aList)) return false;
+        return java.util.Objects.equals(anArray, that.anArray);
+    }
+
+    //</editor-fold>
+}
@@ -0,0 +1,117 @@
+package javax0.geci.tests.mapper;
+
+import javax0.geci.annotations.Geci;
+
+/**
+ * Sample class for the acyclic mapping and the {@code writeTo()} method
+ */
+@Geci("mapper cycles='no' writeTo='yes'")
+public class Address {
+    private String street = "Main \"Street\"\n";
+    private int number = 1;
+    private Double latitude = null;
+    private Country country = new Country();
+
+    //<editor-fold id="mapper">
+    @javax0.geci.annotations.Generated("mapper")
+    public java.util.Map<String,Object> toMap() {
+        final java.util.Map<String,Object> map = new java.util.HashMap<>(6);
+        map.put("country", country == null ? null : country.toMap());
+        map.put("latitude",latitude);
+        map.put("number",number);
+        map.put("street",street);
+        return map;
+    }
+    @javax0.geci.annotations.Generated("mapper")
+    public static Address fromMap(java.util.Map map) {
+        if (map == null) {
+            return null;
+        }
+        final Address it = new Address();
+        it.country = javax0.geci.tests.mapper.Country.fromMap((java.util.Map<String,Object>)map.get("country"));
+        it.latitude = (java.lang.Double)map.get("latitude");
+        it.number = (int)map.get("number");
+        it.street = (java.lang.String)map.get("street");
+        return it;
+    }
+    @javax0.geci.annotations.Generated("mapper")
+    public void writeTo(java.lang.Appendable out) throws java.io.IOException {
+        out.append("{\"country\":");
+        if (country == null) {
+            out.append("null");
+        } else {
+            country.writeTo(out);
+        }
+        out.append(",\"latitude\":");
+        if (latitude == null) {
+            out.append("null");
+        } else {
+            writeJsonNumber(out, latitude);
+        }
+        out.append(",\"number\":");
+        writeJsonNumber(out, number);
+        out.append(",\"street\":");
+        writeJsonString(out, street);
+        out.append("}");
+    }
+    @javax0.geci.annotations.Generated("mapper")
+    private static void writeJsonString(java.lang.Appendable out, Object value) throws java.io.IOException {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        final String s = value.toString();
+        out.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < ' ') {
+                out.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+    @javax0.geci.annotations.Generated("mapper")
+    private static void writeJsonNumber(java.lang.Appendable out, long value) throws java.io.IOException {
+        if (out instanceof java.lang.StringBuilder) {
+            ((java.lang.StringBuilder) out).append(value);
+            return;
+        }
+        if (value < 0) {
+            out.append('-');
+        } else {
+            value = -value;
+        }
+        long power = 1;
+        while (value / power <= -10) {
+            power *= 10;
+        }
+        for (; power > 0; power /= 10) {
+            out.append((char) ('0' - value / power % 10));
+        }
+    }
+    @javax0.geci.annotations.Generated("mapper")
+    private static void writeJsonNumber(java.lang.Appendable out, double value) throws java.io.IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            out.append("null");
+        } else if (out instanceof java.lang.StringBuilder) {
+            ((java.lang.StringBuilder) out).append(value);
+        } else {
+            out.append(Double.toString(value));
+        }
+    }
+    @javax0.geci.annotations.Generated("mapper")
+    private static void writeJsonNumber(java.lang.Appendable out, float value) throws java.io.IOException {
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            out.append("null");
+        } else if (out instanceof java.lang.StringBuilder) {
+            ((java.lang.StringBuilder) out).append(value);
+        } else {
+            out.append(Float.toString(value));
+        }
+    }
+    //</editor-fold>
+}
@@ -0,0 +1,55 @@
+package javax0.geci.tests.mapper;
+
+import javax0.geci.annotations.Geci;
+
+/**
+ * Sample class for the acyclic mapping and the {@code writeTo()} method
+ */
+@Geci("mapper cycles='no' writeTo='yes'")
+public class Country {
+    private String name = "Hungary";
+
+    //<editor-fold id="mapper">
+    @javax0.geci.annotations.Generated("mapper")
+    public java.util.Map<String,Object> toMap() {
+        final java.util.Map<String,Object> map = new java.util.HashMap<>(2);
+        map.put("name",name);
+        return map;
+    }
+    @javax0.geci.annotations.Generated("mapper")
+    public static Country fromMap(java.util.Map map) {
+        if (map == null) {
+            return null;
+        }
+        final Country it = new Country();
+        it.name = (java.lang.String)map.get("name");
+        return it;
+    }
+    @javax0.geci.annotations.Generated("mapper")
+    public void writeTo(java.lang.Appendable out) throws java.io.IOException {
+        out.append("{\"name\":");
+        writeJsonString(out, name);
+        out.append("}");
+    }
+    @javax0.geci.annotations.Generated("mapper")
+    private static void writeJsonString(java.lang.Appendable out, Object value) throws java.io.IOException {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        final String s = value.toString();
+        out.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < ' ') {
+                out.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+    //</editor-fold>
+}
@@ -0,0 +1,194 @@
+package javax0.geci.tests.mapper;
+
+import javax0.geci.annotations.Geci;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sample class for the {@code writeTo()} method writing numbers that
+ * are not finite, collections, maps and arrays
+ */
+@Geci("mapper cycles='no' writeTo='yes'")
+public class Measurement {
+    private double temperature = Double.NaN;
+    private float ratio = Float.POSITIVE_INFINITY;
+    private Double average = 2.5;
+    private long count = Long.MIN_VALUE;
+    private boolean valid = true;
+    private List<String> tags = List.of("a", "b\"");
+    private Map<String, Double> limits = Map.of("max", Double.NEGATIVE_INFINITY);
+    private int[] samples = {0, -12, 340};
+
+    //<editor-fold id="mapper">
+    @javax0.geci.annotations.Generated("mapper")
+    public java.util.Map<String,Object> toMap() {
+        final java.util.Map<String,Object> map = new java.util.HashMap<>(11);
+        map.put("average",average);
+        map.put("count",count);
+        map.put("limits",limits);
+        map.put("ratio",ratio);
+        map.put("samples",samples);
+        map.put("tags",tags);
+        map.put("temperature",temperature);
+        map.put("valid",valid);
+        return map;
+    }
+    @javax0.geci.annotations.Generated("mapper")
+    public static Measurement fromMap(java.util.Map map) {
+        if (map == null) {
+            return null;
+        }
+        final Measurement it = new Measurement();
+        it.average = (java.lang.Double)map.get("average");
+        it.count = (long)map.get("count");
+        it.limits = (java.util.Map)map.get("limits");
+        it.ratio = (float)map.get("ratio");
+        it.samples = (int[])map.get("samples");
+        it.tags = (java.util.List)map.get("tags");
+        it.temperature = (double)map.get("temperature");
+        it.valid = (boolean)map.get("valid");
+        return it;
+    }
+    @javax0.geci.annotations.Generated("mapper")
+    public void writeTo(java.lang.Appendable out) throws java.io.IOException {
+        out.append("{\"average\":");
+        if (average == null) {
+            out.append("null");
+        } else {
+            writeJsonNumber(out, average);
+        }
+        out.append(",\"count\":");
+        writeJsonNumber(out, count);
+        out.append(",\"limits\":");
+        writeJsonValue(out, limits);
+        out.append(",\"ratio\":");
+        writeJsonNumber(out, ratio);
+        out.append(",\"samples\":");
+        if (samples == null) {
+            out.append("null");
+        } else {
+            out.append('[');
+            for (int i = 0; i < samples.length; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                writeJsonNumber(out, samples[i]);
+            }
+            out.append(']');
+        }
+        out.append(",\"tags\":");
+        writeJsonValue(out, tags);
+        out.append(",\"temperature\":");
+        writeJsonNumber(out, temperature);
+        out.append(",\"valid\":");
+        out.append(valid ? "true" : "false");
+        out.append("}");
+    }
+    @javax0.geci.annotations.Generated("mapper")
+    private static void writeJsonValue(java.lang.Appendable out, Object value) throws java.io.IOException {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof Boolean) {
+            out.append((Boolean) value ? "true" : "false");
+        } else if (value instanceof Double) {
+            writeJsonNumber(out, (double) (Double) value);
+        } else if (value instanceof Float) {
+            writeJsonNumber(out, (float) (Float) value);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            writeJsonNumber(out, ((Number) value).longValue());
+        } else if (value instanceof Number) {
+            out.append(value.toString());
+        } else if (value instanceof java.util.Map) {
+            char separator = '{';
+            for (final java.util.Map.Entry<?, ?> entry : ((java.util.Map<?, ?>) value).entrySet()) {
+                out.append(separator);
+                separator = ',';
+                writeJsonString(out, String.valueOf(entry.getKey()));
+                out.append(':');
+                writeJsonValue(out, entry.getValue());
+            }
+            out.append(separator == '{' ? "{}" : "}");
+        } else if (value instanceof Iterable) {
+            char separator = '[';
+            for (final Object element : (Iterable<?>) value) {
+                out.append(separator);
+                separator = ',';
+                writeJsonValue(out, element);
+            }
+            out.append(separator == '[' ? "[]" : "]");
+        } else if (value.getClass().isArray()) {
+            final int length = java.lang.reflect.Array.getLength(value);
+            out.append('[');
+            for (int i = 0; i < length; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                writeJsonValue(out, java.lang.reflect.Array.get(value, i));
+            }
+            out.append(']');
+        } else {
+            writeJsonString(out, value);
+        }
+    }
+    @javax0.geci.annotations.Generated("mapper")
+    private static void writeJsonString(java.lang.Appendable out, Object value) throws java.io.IOException {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        final String s = value.toString();
+        out.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < ' ') {
+                out.append("\\u00").append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xF, 16));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+    @javax0.geci.annotations.Generated("mapper")
+    private static void writeJsonNumber(java.lang.Appendable out, long value) throws java.io.IOException {
+        if (out instanceof java.lang.StringBuilder) {
+            ((java.lang.StringBuilder) out).append(value);
+            return;
+        }
+        if (value < 0) {
+            out.append('-');
+        } else {
+            value = -value;
+        }
+        long power = 1;
+        while (value / power <= -10) {
+            power *= 10;
+        }
+        for (; power > 0; power /= 10) {
+            out.append((char) ('0' - value / power % 10));
+        }
+    }
+    @javax0.geci.annotations.Generated("mapper")
+    private static void writeJsonNumber(java.lang.Appendable out, double value) throws java.io.IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            out.append("null");
+        } else if (out instanceof java.lang.StringBuilder) {
+            ((java.lang.StringBuilder) out).append(value);
+        } else {
+            out.append(Double.toString(value));
+        }
+    }
+    @javax0.geci.annotations.Generated("mapper")
+    private static void writeJsonNumber(java.lang.Appendable out, float value) throws java.io.IOException {
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            out.append("null");
+        } else if (out instanceof java.lang.StringBuilder) {
+            ((java.lang.StringBuilder) out).append(value);
+        } else {
+            out.append(Float.toString(value));
+        }
+    }
+    //</editor-fold>
+}
@@ -2,7 +2,7 @@ package javax0.geci.tests.record;
 
 import javax0.geci.annotations.Geci;
 
-@Geci("record")
+@Geci("record cacheHash='yes'")
 public final class Range {
     final  int  lo;
     final  int  hi;
@@ -27,9 +27,18 @@ public final class Range {
         return hi;
     }
 
+    private transient int hashCodeCache;
+
     @Override
     public int hashCode() {
-        return java.util.Objects.hash(lo, hi);
+        int result = hashCodeCache;
+        if (result == 0) {
+            result = 1;
+            result = 31 * result + Integer.hashCode(lo);
+            result = 31 * result + Integer.hashCode(hi);
+            hashCodeCache = result;
+        }
+        return result;
     }
 
     @Override
@@ -37,7 +37,11 @@ public final class RecordClass {
 
     @Override
     public int hashCode() {
-        return java.util.Objects.hash(z, a, b);
+        int result = 1;
+        result = 31 * result + java.util.Objects.hashCode(z);
+        result = 31 * result + Integer.hashCode(a);
+        result = 31 * result + Double.hashCode(b);
+        return result;
     }
 
     @Override
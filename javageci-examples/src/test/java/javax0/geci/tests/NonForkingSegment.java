@@ -0,0 +1,129 @@
+package javax0.geci.tests;
+
+import javax0.geci.api.CompoundParams;
+import javax0.geci.api.Segment;
+import javax0.geci.api.Source;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A segment that does not implement {@link Segment#fork()}, like the
+ * segments of other engines or mocks. It writes the lines into the
+ * engine segment it wraps.
+ */
+public class NonForkingSegment implements Segment {
+    private final Segment segment = new javax0.geci.engine.Segment(0);
+
+    /**
+     * @return a source that has no lines and that opens this segment for
+     * any segment name
+     */
+    public Source source() {
+        return (Source) Proxy.newProxyInstance(Source.class.getClassLoader(), new Class<?>[]{Source.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "open":
+                        return this;
+                    case "getLines":
+                        return List.of();
+                    case "getAbsoluteFile":
+                        return "Sample.java";
+                    default:
+                        return null;
+                }
+            });
+    }
+
+    @Override
+    public long touch(long touchValue) {
+        return segment.touch(touchValue);
+    }
+
+    @Override
+    public String getContent() {
+        return segment.getContent();
+    }
+
+    @Override
+    public List<String> originalLines() {
+        return segment.originalLines();
+    }
+
+    @Override
+    public void setPreface(String... preface) {
+        segment.setPreface(preface);
+    }
+
+    @Override
+    public CompoundParams sourceParams() {
+        return segment.sourceParams();
+    }
+
+    @Override
+    public void setPostface(String... postface) {
+        segment.setPostface(postface);
+    }
+
+    @Override
+    public void setContent(String content) {
+        segment.setContent(content);
+    }
+
+    @Override
+    public Segment write(String s, Object... parameters) {
+        segment.write(s, parameters);
+        return this;
+    }
+
+    @Override
+    public Segment write(Segment segment) {
+        this.segment.write(segment);
+        return this;
+    }
+
+    @Override
+    public Segment newline() {
+        segment.newline();
+        return this;
+    }
+
+    @Override
+    public Segment param(String... keyValuePairs) {
+        segment.param(keyValuePairs);
+        return this;
+    }
+
+    @Override
+    public Set<String> paramKeySet() {
+        return segment.paramKeySet();
+    }
+
+    @Override
+    public void traceParams() {
+        segment.traceParams();
+    }
+
+    @Override
+    public void traceLines() {
+        segment.traceLines();
+    }
+
+    @Override
+    public void resetParams() {
+        segment.resetParams();
+    }
+
+    @Override
+    public Segment write_r(String s, Object... parameters) {
+        segment.write_r(s, parameters);
+        return this;
+    }
+
+    @Override
+    public Segment write_l(String s, Object... parameters) {
+        segment.write_l(s, parameters);
+        return this;
+    }
+}
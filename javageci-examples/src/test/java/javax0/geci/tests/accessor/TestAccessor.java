@@ -2,7 +2,9 @@ package javax0.geci.tests.accessor;
 
 import javax0.geci.accessor.Accessor;
 import javax0.geci.engine.Geci;
+import javax0.geci.tests.accessors.NeedAtomicAccessors;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import static javax0.geci.api.Source.maven;
@@ -32,4 +34,24 @@ class TestAccessor {
                 geci.failed());
     }
 
+    @Test
+    @DisplayName("The generated VarHandle accessors update the fields atomically")
+    void testAtomicAccessors() {
+        final var sut = new NeedAtomicAccessors();
+        Assertions.assertEquals(0, sut.getAndAddCounter(5));
+        Assertions.assertEquals(5, sut.getCounterAcquire());
+        Assertions.assertTrue(sut.compareAndSetCounter(5, 7));
+        Assertions.assertFalse(sut.compareAndSetCounter(5, 9));
+        Assertions.assertEquals(7, sut.getCounter());
+        sut.setTotalBytesRelease(10L);
+        Assertions.assertEquals(10L, sut.getAndAddTotalBytes(3L));
+        Assertions.assertEquals(13L, sut.getTotalBytes());
+        Assertions.assertNull(sut.getAndSetName("a"));
+        Assertions.assertTrue(sut.compareAndSetName("a", "b"));
+        Assertions.assertEquals("b", sut.getNameAcquire());
+        final var names = java.util.List.of("c");
+        Assertions.assertNull(sut.getAndSetNames(names));
+        Assertions.assertSame(names, sut.getNamesAcquire());
+    }
+
 }
@@ -3,8 +3,12 @@ package javax0.geci.tests.builder;
 import javax0.geci.builder.Builder;
 import javax0.geci.engine.Geci;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static javax0.geci.api.Source.maven;
 
 public class TestBuilder {
@@ -34,4 +38,24 @@ public class TestBuilder {
                 geci.failed()
         );
     }
+
+    @Test
+    @DisplayName("Reusable builder builds independent objects and resets")
+    void testReusableBuilder() {
+        final var builder = ReusableClassToCreateBuilder.builder();
+        final var first = builder.z(1).name("first").addTags("a").addTags("b").build();
+        final var second = builder.reset().z(2).build();
+        final var target = new ReusableClassToCreateBuilder();
+        builder.reset().numbers(new ArrayList<>()).addNumbers(3).buildInto(target);
+
+        Assertions.assertEquals(1, first.getZ());
+        Assertions.assertEquals("first", first.getName());
+        Assertions.assertEquals(List.of("a", "b"), first.getTags());
+        Assertions.assertEquals(2, second.getZ());
+        Assertions.assertEquals("default", second.getName());
+        Assertions.assertEquals(List.of(), second.getTags());
+        Assertions.assertEquals(List.of(3), target.getNumbers());
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> builder.reset().addNumbers(4).build());
+    }
 }
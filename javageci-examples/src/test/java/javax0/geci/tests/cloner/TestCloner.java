@@ -3,8 +3,13 @@ package javax0.geci.tests.cloner;
 import javax0.geci.cloner.Cloner;
 import javax0.geci.engine.Geci;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 import static javax0.geci.api.Source.maven;
 
 public class TestCloner {
@@ -21,4 +26,34 @@ public class TestCloner {
                 geci.failed()
         );
     }
+
+    @Test
+    @DisplayName("Deep cloner copies the arrays, collections and cloneable fields")
+    void testDeepCopy() {
+        final var sut = new NeedsDeepCloner();
+        sut.values = new int[]{1, 2};
+        sut.matrix = new int[][]{{1}, null};
+        sut.children = new NeedsDeepCloner[]{new NeedsDeepCloner(), null};
+        sut.list = List.of("a");
+        sut.arrayList = new ArrayList<>(List.of(1));
+        sut.map = Map.of("a", 1);
+        sut.next = new NeedsDeepCloner();
+        sut.other = new NeedCloner();
+
+        final var copy = sut.copy();
+
+        Assertions.assertNotSame(sut.values, copy.values);
+        Assertions.assertArrayEquals(sut.values, copy.values);
+        Assertions.assertNotSame(sut.matrix[0], copy.matrix[0]);
+        Assertions.assertNull(copy.matrix[1]);
+        Assertions.assertNotSame(sut.children[0], copy.children[0]);
+        Assertions.assertNull(copy.children[1]);
+        Assertions.assertNotSame(sut.list, copy.list);
+        Assertions.assertEquals(sut.list, copy.list);
+        Assertions.assertNotSame(sut.arrayList, copy.arrayList);
+        Assertions.assertEquals(sut.map, copy.map);
+        Assertions.assertNull(copy.sorted);
+        Assertions.assertNotSame(sut.next, copy.next);
+        Assertions.assertNotSame(sut.other, copy.other);
+    }
 }
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.lang.reflect.Field;
 import java.util.Map;
 
@@ -57,4 +59,41 @@ public class TestMapperGeneratedClasses {
         Person p = Person.fromMap(mapped);
         Assertions.assertEquals(p, f.get(p));
     }
+
+    @Test
+    @DisplayName("Test an acyclic object mapped and demapped")
+    void mapsAndDemapsAcyclic() throws IOException {
+        final var address = new Address();
+        final Map<String, Object> mapped = address.toMap();
+        Assertions.assertEquals("Hungary", ((Map) mapped.get("country")).get("name"));
+        final var sb = new StringBuilder();
+        Address.fromMap(mapped).writeTo(sb);
+        Assertions.assertEquals(toJson(address), sb.toString());
+    }
+
+    @Test
+    @DisplayName("Test an acyclic object written as JSON")
+    void writesJson() throws IOException {
+        Assertions.assertEquals("{\"country\":{\"name\":\"Hungary\"},\"latitude\":null,\"number\":1," +
+                "\"street\":\"Main \\\"Street\\\"\\u000a\"}", toJson(new Address()));
+    }
+
+    @Test
+    @DisplayName("Test not finite numbers, collections, maps and arrays written as JSON")
+    void writesJsonValues() throws IOException {
+        final var expected = "{\"average\":2.5,\"count\":-9223372036854775808,\"limits\":{\"max\":null}," +
+                "\"ratio\":null,\"samples\":[0,-12,340],\"tags\":[\"a\",\"b\\\"\"],\"temperature\":null,\"valid\":true}";
+        final var sb = new StringBuilder();
+        new Measurement().writeTo(sb);
+        Assertions.assertEquals(expected, sb.toString());
+        final var writer = new StringWriter();
+        new Measurement().writeTo(writer);
+        Assertions.assertEquals(expected, writer.toString());
+    }
+
+    private static String toJson(Address address) throws IOException {
+        final var sb = new StringBuilder();
+        address.writeTo(sb);
+        return sb.toString();
+    }
 }
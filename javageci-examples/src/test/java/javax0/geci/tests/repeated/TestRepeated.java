@@ -2,11 +2,15 @@ package javax0.geci.tests.repeated;
 
 import javax0.geci.engine.Geci;
 import javax0.geci.repeated.Repeated;
+import javax0.geci.tests.NonForkingSegment;
 import javax0.geci.tools.CaseTools;
+import javax0.geci.tools.CompoundParams;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.Map;
+
 public class TestRepeated {
 
     @Test
@@ -41,4 +45,50 @@ public class TestRepeated {
                 , geci.failed()
         );
     }
+
+    @Test
+    @DisplayName("Rendering the values parallel creates the same code as the sequential rendering")
+    void coreGeneratorsRepeatedParallel() throws Exception {
+        final var geci = new Geci();
+        Assertions.assertFalse(
+                geci.source("./javageci-core/src/main/java/", "../javageci-core/src/main/java/")
+                        .register(Repeated.builder()
+                                .parallel(true)
+                                //
+                                .selector("configSetters")
+                                .define((ctx, s) -> ctx.segment().param("setter", "set" + CaseTools.ucase(s)))
+                                //
+                                .selector("consumers")
+                                .define((ctx, s) -> {
+                                            String subtype;
+                                            if (s.startsWith("process") && (s.endsWith(subtype = "Field") || s.endsWith(subtype = "Method") || s.endsWith(subtype = "Class"))) {
+                                                ctx.segment().param("type", "BiConsumer<Context, " + subtype + ">",
+                                                        "const", "BiNOOP");
+                                            } else {
+                                                ctx.segment().param("type", "Consumer<Context>",
+                                                        "const", "NOOP");
+                                            }
+                                        }
+                                )
+                                //
+                                .build())
+                        .only(".*","\\.")
+                        .ignore("\\.git")
+                        .generate()
+                , geci.failed()
+        );
+    }
+
+    @Test
+    @DisplayName("Rendering the values parallel falls back to sequential when the segment cannot be forked")
+    void parallelFallsBackToSequentialWhenSegmentCannotFork() throws Exception {
+        final var sut = Repeated.builder()
+                .parallel(true)
+                .values("a,b,c")
+                .template("```v{{value}}```")
+                .build();
+        final var segment = new NonForkingSegment();
+        sut.process(segment.source(), TestRepeated.class, new CompoundParams("repeated", Map.of()));
+        Assertions.assertEquals("va\nvb\nvc", segment.getContent());
+    }
 }
@@ -1,10 +1,15 @@
 package javax0.geci.tests.templated;
 
 import javax0.geci.engine.Geci;
+import javax0.geci.engine.Segment;
 import javax0.geci.templated.Templated;
+import javax0.geci.tests.NonForkingSegment;
+import javax0.geci.tools.CompoundParams;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.Map;
+
 import static javax0.geci.api.Source.maven;
 
 public class TestTemplated {
@@ -13,12 +18,22 @@ public class TestTemplated {
 
     @Test
     void testTemplated() throws Exception {
+        testTemplated(false);
+    }
+
+    @Test
+    void testTemplatedParallel() throws Exception {
+        testTemplated(true);
+    }
+
+    private void testTemplated(boolean parallel) throws Exception {
         final var geci = new Geci();
         Assertions.assertFalse(
                 geci.source(maven().module("javageci-examples").mainSource())
                         .register(
                                 Templated
                                         .builder()
+                                        .parallel(parallel)
                                         .selector("needs")
                                         .preprocess(TEMPLATE_DIR + "preprocess.java")
                                         .processField(TEMPLATE_DIR + "processField.java")
@@ -31,4 +46,34 @@ public class TestTemplated {
                         ).generate(),
                 geci.failed());
     }
+
+    @Test
+    void testAnnotationParamsOverrideCallbackParams() throws Exception {
+        final var sut = Templated.builder()
+                .processField("```{{name}}.{{callback}}.{{field.name}}```")
+                .processFieldParams((ctx, field) -> ctx.segment().param("name", "callback", "callback", "set"))
+                .build();
+        final var segment = new Segment(0);
+        final var params = new CompoundParams("templated", Map.of("name", "annotation"));
+        sut.process(null, Sample.class, params, Sample.class.getDeclaredField("x"), segment);
+        segment.write("{{name}}.{{callback}}.{{field.name}}");
+        Assertions.assertEquals("annotation.set.x\n{{name}}.{{callback}}.{{field.name}}", segment.getContent());
+    }
+
+    @Test
+    void testParallelFallsBackToSequentialWhenSegmentCannotFork() throws Exception {
+        final var sut = Templated.builder()
+                .parallel(true)
+                .processField("```{{field.name}}```")
+                .build();
+        final var segment = new NonForkingSegment();
+        sut.process(segment.source(), Sample.class, new CompoundParams("templated", Map.of()));
+        Assertions.assertEquals("x\ny\nz", segment.getContent());
+    }
+
+    private static class Sample {
+        private int x;
+        private int y;
+        private int z;
+    }
 }
@@ -8,6 +8,7 @@ import javax0.jamal.api.Position;
 import javax0.jamal.engine.Processor;
 import javax0.jamal.tools.Input;
 
+import java.util.Set;
 import java.util.regex.Pattern;
 
 /**
@@ -32,6 +33,18 @@ public class JamalGenerator extends AbstractGeneratorEx {
     private static final Pattern START = Pattern.compile("^\\s*/\\*!jamal\\s*$");
     private static final Pattern COMMENT_END = Pattern.compile("^\\s*\\*/\\s*$");
     private static final Pattern SEGMENT_END = Pattern.compile("^\\s*//__END__\\s*$");
+    private static final Set<String> MARKERS = Set.of("/*!jamal");
+
+    /**
+     * Sources that do not contain any {@code /*!jamal} segment start
+     * have nothing to process.
+     *
+     * @return the set containing the segment start string
+     */
+    @Override
+    public Set<String> markers() {
+        return MARKERS;
+    }
 
     @Override
     public void processEx(Source source) {
@@ -79,6 +79,20 @@ public abstract class AbstractJavaGenerator extends AbstractGeneratorEx {
 
     protected final List<Class<?>> classes = new ArrayList<>();
 
+    private static final Set<String> EXTENSIONS = Set.of("java");
+
+    /**
+     * Java generators are interested only in the {@code .java} files.
+     * The framework does not invoke the generator for other files that
+     * could not have a class anyway.
+     *
+     * @return the set containing {@code java}
+     */
+    @Override
+    public Set<String> extensions() {
+        return EXTENSIONS;
+    }
+
     /**
      * Child classes can override this method to return {@code true} in case they want to process a source class and
      * source code even if the class is not annotated, there is no annotation before the class line in a comment and
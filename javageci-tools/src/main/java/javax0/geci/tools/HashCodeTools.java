@@ -0,0 +1,69 @@
+package javax0.geci.tools;
+
+import javax0.geci.api.Segment;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tools for the generators that create {@code hashCode()} methods.
+ *
+ * <p> The generated code calculates the same value as {@code
+ * java.util.Objects.hash(a, b, c)} but without allocating the varargs
+ * array and without boxing the primitive fields. The only difference is
+ * that arrays are hashed by their content using {@code
+ * java.util.Arrays.hashCode()}.
+ */
+public class HashCodeTools {
+
+    private static final Map<Class<?>, String> BOXES = Map.of(
+        boolean.class, "Boolean",
+        byte.class, "Byte",
+        char.class, "Character",
+        short.class, "Short",
+        int.class, "Integer",
+        long.class, "Long",
+        float.class, "Float",
+        double.class, "Double"
+    );
+
+    /**
+     * Get the Java expression that calculates the hash code of a value
+     * without allocating any object.
+     *
+     * @param type the type of the value
+     * @param name the name of the field or any expression that yields the
+     *             value
+     * @return the Java expression calculating the hash code
+     */
+    public static String hashExpression(Class<?> type, String name) {
+        if (type.isPrimitive()) {
+            return BOXES.get(type) + ".hashCode(" + name + ")";
+        }
+        if (type.isArray()) {
+            return "java.util.Arrays.hashCode(" + name + ")";
+        }
+        return "java.util.Objects.hashCode(" + name + ")";
+    }
+
+    /**
+     * Write the statements that mix the hash code of the fields into
+     * the local variable {@code result}. The variable is not declared
+     * here, the caller has to declare it and initialize it to {@code 1}.
+     *
+     * @param segment the segment to write the statements into
+     * @param fields  the fields to include into the hash code in the
+     *                order they have to be included
+     * @param extra   Java expressions that are also included after the
+     *                fields, like {@code super.hashCode()}
+     */
+    public static void writeHashStatements(Segment segment, List<Field> fields, String... extra) {
+        for (final var field : fields) {
+            segment.write("result = 31 * result + %s;", hashExpression(field.getType(), field.getName()));
+        }
+        for (final var expression : extra) {
+            segment.write("result = 31 * result + %s;", expression);
+        }
+    }
+}
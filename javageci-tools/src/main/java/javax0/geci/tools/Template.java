@@ -1,6 +1,9 @@
 package javax0.geci.tools;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>A very simple Moustache like (light) templating. The method {@link #resolve(String)} replaces every
@@ -28,6 +31,15 @@ import java.util.Map;
  *
  */
 public class Template {
+    /**
+     * The maximal number of the compiled templates kept in the cache. When the cache grows larger than this it is
+     * emptied. Generated lines that are unique (e.g. already contain formatted values) would otherwise fill up the
+     * memory.
+     */
+    private static final int MAX_CACHED = 4096;
+    private static final Map<String, Compiled> cache = new ConcurrentHashMap<>();
+    private static final Map<String, List<String>> linesCache = new ConcurrentHashMap<>();
+
     final private Map<String, String> params;
 
     public Template(Map<String, String> params) {
@@ -35,24 +47,119 @@ public class Template {
     }
 
     public String resolve(String s) {
-        final StringBuilder sb = new StringBuilder(s);
-        int position = 0;
-        int start;
-        while ((start = sb.indexOf("{{", position)) >= 0) {
-            int end = sb.indexOf("}}",start);
-            if( end > 0 ) {
-                final var key = sb.substring(start + 2, end);
-                if( params.containsKey(key) && params.get(key) != null ){
-                    final var value = params.get(key);
-                    sb.replace(start,end+2,value);
-                    position = start + value.length();
-                }else{
-                    position = end + 2;
+        if (s.indexOf("{{") == -1) {
+            return s;
+        }
+        final var sb = new StringBuilder(s.length() + 16);
+        compile(s).render(params, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Resolve the string and append the result to the string builder. This is the same as {@code
+     * sb.append(resolve(s))} without creating the intermediate string.
+     *
+     * @param s  the string to resolve
+     * @param sb the string builder to append the result to
+     */
+    public void resolve(String s, StringBuilder sb) {
+        if (s.indexOf("{{") == -1) {
+            sb.append(s);
+        } else {
+            compile(s).render(params, sb);
+        }
+    }
+
+    /**
+     * Clear the cache of the compiled templates. The cache is shared by all {@code Template} instances.
+     */
+    public static void clearCache() {
+        cache.clear();
+        linesCache.clear();
+    }
+
+    /**
+     * Split the string into lines the same way as {@code s.split("\r?\n", -1)}. A multi-line template is usually
+     * written many times, once for each member or value, therefore the lines are cached the same way as the compiled
+     * templates.
+     *
+     * @param s the multi-line template
+     * @return the unmodifiable list of the lines
+     */
+    public static List<String> lines(String s) {
+        var lines = linesCache.get(s);
+        if (lines == null) {
+            lines = split(s);
+            if (linesCache.size() >= MAX_CACHED) {
+                linesCache.clear();
+            }
+            linesCache.put(s, lines);
+        }
+        return lines;
+    }
+
+    private static List<String> split(String s) {
+        final var lines = new ArrayList<String>();
+        int start = 0;
+        int end;
+        while ((end = s.indexOf('\n', start)) >= 0) {
+            lines.add(s.substring(start, end > start && s.charAt(end - 1) == '\r' ? end - 1 : end));
+            start = end + 1;
+        }
+        lines.add(s.substring(start));
+        return List.copyOf(lines);
+    }
+
+    private static Compiled compile(String s) {
+        var compiled = cache.get(s);
+        if (compiled == null) {
+            compiled = new Compiled(s);
+            if (cache.size() >= MAX_CACHED) {
+                cache.clear();
+            }
+            cache.put(s, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * A template string split up to literal and placeholder parts. The parts at the even indices are literals, the
+     * ones at the odd indices are the keys of the placeholders. The splitting depends only on the template string and
+     * not on the actual parameters, because the replaced values are never scanned for placeholders.
+     */
+    private static class Compiled {
+        private final String[] parts;
+
+        private Compiled(String s) {
+            final List<String> parts = new ArrayList<>();
+            int position = 0;
+            int literalStart = 0;
+            int start;
+            while ((start = s.indexOf("{{", position)) >= 0) {
+                int end = s.indexOf("}}", start);
+                if (end < 0) {
+                    break;
                 }
-            }else{
-                break;
+                parts.add(s.substring(literalStart, start));
+                parts.add(s.substring(start + 2, end));
+                position = literalStart = end + 2;
+            }
+            parts.add(s.substring(literalStart));
+            this.parts = parts.toArray(new String[0]);
+        }
+
+        private void render(Map<String, String> params, StringBuilder sb) {
+            sb.append(parts[0]);
+            for (int i = 1; i < parts.length; i += 2) {
+                final var key = parts[i];
+                final var value = params.get(key);
+                if (value != null) {
+                    sb.append(value);
+                } else {
+                    sb.append("{{").append(key).append("}}");
+                }
+                sb.append(parts[i + 1]);
             }
         }
-        return sb.toString();
     }
 }
@@ -3,13 +3,39 @@ package javax0.geci.tools;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Loads the content of the templates. The loaded and normalized
+ * contents are cached. Quoted templates are not cached, because they
+ * are not loaded. Templates read from files are reloaded when
+ * the modification time of the file changes. The cache is emptied at
+ * the end of each code generation run by the engine calling {@link
+ * #runFinished()} unless it was switched to be JVM-wide calling
+ * {@link #cacheAcrossRuns(boolean)}.
+ */
 public class TemplateLoader {
     private static final ClassLoader loader = TemplateLoader.class.getClassLoader();
     private static final String QUOTE = "```";
+    private static final Map<String, Content> cache = new ConcurrentHashMap<>();
+    private static volatile boolean acrossRuns = false;
+
+    private static class Content {
+        private final String text;
+        private final FileTime modified;
+
+        private Content(String text, FileTime modified) {
+            this.text = text;
+            this.modified = modified;
+        }
+    }
 
     /**
      * Get the content of a template either from the name of the Java
@@ -38,9 +64,7 @@ public class TemplateLoader {
         try {
             final var resource = loader.getResource(template);
             if (resource != null) {
-                return new String(Files.readAllBytes(
-                    Paths.get(fix(resource.getFile()))), StandardCharsets.UTF_8)
-                        .replaceAll("\r\n", "\n");
+                return fromFile(Paths.get(fix(resource.getFile())));
             } else {
                 return "/* template '" + template + "' was not loaded */";
             }
@@ -58,6 +82,81 @@ public class TemplateLoader {
         }
     }
 
+    /**
+     * Get the content of a resource. The content is normalized
+     * replacing the {@code \r\n} line endings to {@code \n}.
+     *
+     * <p>The caller has to find the resource, e.g. using {@link
+     * Class#getResource(String)}, because the resources in a named
+     * module are not necessarily accessible for this class.
+     *
+     * @param resource the URL of the resource
+     * @return the content of the resource
+     * @throws IOException if the resource cannot be read
+     */
+    public static String getResourceContent(URL resource) throws IOException {
+        if ("file".equals(resource.getProtocol())) {
+            return fromFile(Paths.get(fix(resource.getFile())));
+        }
+        final var key = resource.toExternalForm();
+        final var cached = cache.get(key);
+        if (cached != null) {
+            return cached.text;
+        }
+        try (final var is = resource.openStream()) {
+            final var text = normalize(new String(JVM8Tools.readAllBytes(is), StandardCharsets.UTF_8));
+            cache.put(key, new Content(text, null));
+            return text;
+        }
+    }
+
+    /**
+     * Switch the cache JVM-wide. When it is switched on the cache is
+     * not emptied at the end of the code generation runs. The contents
+     * read from files are still reloaded when the files are modified.
+     *
+     * @param on {@code true} to keep the cache between the runs
+     */
+    public static void cacheAcrossRuns(boolean on) {
+        acrossRuns = on;
+        if (!on) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Signal the end of a code generation run. The cache is emptied
+     * unless it was switched to be JVM-wide.
+     */
+    public static void runFinished() {
+        if (!acrossRuns) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Empty the cache, even when it was switched to be JVM-wide.
+     */
+    public static void clearCache() {
+        cache.clear();
+    }
+
+    private static String fromFile(Path path) throws IOException {
+        final var key = path.toString();
+        final var modified = Files.getLastModifiedTime(path);
+        final var cached = cache.get(key);
+        if (cached != null && modified.equals(cached.modified)) {
+            return cached.text;
+        }
+        final var text = normalize(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+        cache.put(key, new Content(text, modified));
+        return text;
+    }
+
+    private static String normalize(String s) {
+        return s.indexOf('\r') == -1 ? s : s.replace("\r\n", "\n");
+    }
+
     /**
      * Quote a string so that this will be interpreted by {@link
      * #getTemplateContent(String)} as the template itself and not the
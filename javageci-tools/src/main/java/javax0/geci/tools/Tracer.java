@@ -95,6 +95,17 @@ public class Tracer implements AutoCloseable {
         resetCurrentAndLast();
     }
 
+    /**
+     * Tells if the tracing is switched on. Code that would like to run
+     * parallel can use this method to fall back to sequential execution
+     * while tracing, since the tracer is not thread safe.
+     *
+     * @return {@code true} if the tracing is switched on
+     */
+    public static boolean isOn() {
+        return root != null;
+    }
+
     private static void resetCurrentAndLast() {
         current = root;
         last = root;
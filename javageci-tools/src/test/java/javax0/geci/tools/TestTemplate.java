@@ -55,4 +55,34 @@ public class TestTemplate {
         // end snippet
     }
 
+    @Test
+    @DisplayName("The same template is resolved with the actual parameters every time")
+    void cachedTemplateTest(){
+        final var params = new java.util.HashMap<String, String>();
+        final var sut = new Template(params);
+        params.put("a", "b");
+        Assertions.assertEquals("b{{c}}", sut.resolve("{{a}}{{c}}"));
+        params.put("a", "x");
+        params.put("c", "{{a}}");
+        Assertions.assertEquals("x{{a}}", sut.resolve("{{a}}{{c}}"));
+    }
+
+    @Test
+    @DisplayName("Resolving into a string builder appends the result")
+    void appendTest(){
+        final var sut = new Template(JVM8Tools.asMap("a","b"));
+        final var sb = new StringBuilder(">");
+        sut.resolve("{{x {{a}} {{a}}", sb);
+        sut.resolve(" plain", sb);
+        Assertions.assertEquals(">{{x {{a}} b plain", sb.toString());
+    }
+
+    @Test
+    @DisplayName("The lines of a template are split the same way as with the regular expression")
+    void linesTest(){
+        for (final var s : new String[]{"", "a", "a\nb", "a\r\nb\n", "\r\r\n\n\r", "\n\na\rb\r\n"}) {
+            Assertions.assertEquals(Arrays.asList(s.split("\r?\n", -1)), Template.lines(s));
+        }
+    }
+
 }
@@ -0,0 +1,39 @@
+package javax0.geci.tools;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+
+public class TestTemplateLoader {
+
+    @Test
+    @DisplayName("Quoted templates are returned without the quotes")
+    void quotedTemplate() {
+        Assertions.assertEquals("a{{b}}c", TemplateLoader.getTemplateContent(TemplateLoader.quote("a{{b}}c")));
+        Assertions.assertEquals("a{{b}}c", TemplateLoader.getTemplateContent(TemplateLoader.quote("a{{b}}c")));
+        Assertions.assertNull(TemplateLoader.getTemplateContent(null));
+    }
+
+    @Test
+    @DisplayName("File content is normalized, cached and reloaded when the file is modified")
+    void fileContentIsReloaded() throws IOException {
+        final var file = Files.createTempFile("template", ".template");
+        try {
+            Files.write(file, "line1\r\nline2".getBytes(StandardCharsets.UTF_8));
+            Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000L));
+            final var url = file.toUri().toURL();
+            Assertions.assertEquals("line1\nline2", TemplateLoader.getResourceContent(url));
+            Files.write(file, "line3".getBytes(StandardCharsets.UTF_8));
+            Files.setLastModifiedTime(file, FileTime.fromMillis(2_000_000L));
+            Assertions.assertEquals("line3", TemplateLoader.getResourceContent(url));
+        } finally {
+            TemplateLoader.runFinished();
+            Files.delete(file);
+        }
+    }
+}